@@ -0,0 +1,53 @@
+package com.example.demo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Cost of one password hash at sign-up and one check at login. The default strength matches
+ * {@code security.bcrypt.strength}; pass {@code -p strength=12} to price a change before making it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BCryptBenchmark {
+
+	@Param({"10"})
+	private int strength;
+
+	private BCryptPasswordEncoder encoder;
+
+	private String hash;
+
+	@Setup
+	public void setup() {
+		encoder = new BCryptPasswordEncoder(strength);
+		hash = encoder.encode("password");
+	}
+
+	@Benchmark
+	public String encode() {
+		return encoder.encode("password");
+	}
+
+	@Benchmark
+	public boolean matches() {
+		return encoder.matches("password", hash);
+	}
+
+}
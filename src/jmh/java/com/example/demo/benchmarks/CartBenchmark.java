@@ -0,0 +1,67 @@
+package com.example.demo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.UserOrder;
+
+/**
+ * Cart mutations and order creation against carts of increasing size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+
+	@Param({"1", "10", "100", "1000"})
+	private int lines;
+
+	private Cart cart;
+
+	private Item held;
+
+	private Item absent;
+
+	@Setup
+	public void setup() {
+		cart = Fixtures.cart(lines);
+		held = Fixtures.item(lines);
+		absent = Fixtures.item(lines + 1);
+	}
+
+	@Benchmark
+	public long addAndRemoveUnitOfHeldItem() {
+		cart.addItem(held, 1);
+		cart.removeItem(held, 1);
+		return cart.getTotalCents();
+	}
+
+	@Benchmark
+	public long addAndRemoveNewLine() {
+		cart.addItem(absent, 1);
+		cart.removeItem(absent, 1);
+		return cart.getTotalCents();
+	}
+
+	@Benchmark
+	public UserOrder createOrderFromCart() {
+		return UserOrder.createFromCart(cart);
+	}
+
+}
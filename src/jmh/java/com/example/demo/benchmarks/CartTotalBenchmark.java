@@ -0,0 +1,68 @@
+package com.example.demo.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.Money;
+
+/**
+ * Adds and removes one unit of an item already in the cart: the previous {@code BigDecimal} running
+ * total against the cents-based {@link Cart}. Run with {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartTotalBenchmark {
+
+	private Item item;
+
+	private Cart cart;
+
+	private BigDecimal price;
+
+	private BigDecimal total;
+
+	@Setup
+	public void setup() {
+		item = new Item();
+		item.setId(1L);
+		item.setName("Round Widget");
+		item.setPrice(Money.of("2.99"));
+		item.setDescription("A widget that is round");
+		cart = new Cart();
+		cart.addItem(item);
+		price = item.getPrice().toBigDecimal();
+		total = price;
+	}
+
+	@Benchmark
+	public BigDecimal bigDecimalAddRemove() {
+		total = total.add(price.multiply(BigDecimal.valueOf(1)));
+		total = total.add(price.multiply(BigDecimal.valueOf(-1)));
+		return total;
+	}
+
+	@Benchmark
+	public long centsAddRemove() {
+		cart.addItem(item, 1);
+		cart.removeItem(item, 1);
+		return cart.getTotalCents();
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.Money;
+import com.example.demo.model.persistence.User;
+
+/**
+ * Detached domain objects shaped like the ones the controllers work with.
+ */
+final class Fixtures {
+
+	private Fixtures() {
+	}
+
+	static Item item(long id) {
+		Item item = new Item();
+		item.setId(id);
+		item.setName("Widget " + id);
+		item.setPrice(Money.ofCents(100 + id % 900));
+		item.setDescription("A widget with number " + id);
+		return item;
+	}
+
+	static Cart cart(int lines) {
+		User user = new User();
+		user.setId(1L);
+		user.setUsername("shopper");
+		user.setPassword("password");
+		Cart cart = new Cart();
+		cart.setId(1L);
+		cart.setUser(user);
+		user.setCart(cart);
+		for (int i = 1; i <= lines; i++) {
+			cart.addItem(item(i), 1 + i % 3);
+		}
+		return cart;
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.example.demo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.UserOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Response serialization of the entities the controllers return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+	@Param({"1", "10", "100"})
+	private int lines;
+
+	private ObjectWriter writer;
+
+	private Item item;
+
+	private Cart cart;
+
+	private UserOrder order;
+
+	@Setup
+	public void setup() {
+		writer = new ObjectMapper().writer();
+		item = Fixtures.item(1);
+		cart = Fixtures.cart(lines);
+		order = UserOrder.createFromCart(cart);
+		order.setId(1L);
+	}
+
+	@Benchmark
+	public byte[] item() throws JsonProcessingException {
+		return writer.writeValueAsBytes(item);
+	}
+
+	@Benchmark
+	public byte[] cart() throws JsonProcessingException {
+		return writer.writeValueAsBytes(cart);
+	}
+
+	@Benchmark
+	public byte[] order() throws JsonProcessingException {
+		return writer.writeValueAsBytes(order);
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.example.demo.benchmarks;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.demo.security.SecurityConstants;
+import com.example.demo.security.TokenRevocationList;
+import com.example.demo.security.VerifiedTokenCache;
+
+/**
+ * Token signing as done at login and verification as done on every authenticated request, both
+ * the full HMAC check and the verified-token cache hit that replaces it for repeat tokens. The
+ * cached path includes the revocation check every request makes, against a list holding other
+ * revoked tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+	private Algorithm algorithm;
+
+	private JWTVerifier verifier;
+
+	private VerifiedTokenCache cache;
+
+	private TokenRevocationList revocations;
+
+	private String token;
+
+	@Setup
+	public void setup() {
+		algorithm = Algorithm.HMAC512(SecurityConstants.SECRET.getBytes());
+		verifier = JWT.require(algorithm).build();
+		token = sign();
+		cache = new VerifiedTokenCache(SecurityConstants.VERIFIED_TOKEN_CACHE_SIZE);
+		DecodedJWT jwt = verifier.verify(token);
+		cache.put(token, jwt.getSubject(), jwt.getId(), jwt.getClaim(SecurityConstants.ISSUED_AT_MILLIS_CLAIM).asLong(),
+				jwt.getExpiresAt().getTime(), System.currentTimeMillis());
+		revocations = new TokenRevocationList(100_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			revocations.revoke(UUID.randomUUID().toString(), Long.MAX_VALUE);
+		}
+	}
+
+	@Benchmark
+	public String sign() {
+		long now = System.currentTimeMillis();
+		return JWT.create()
+				.withSubject("shopper")
+				.withJWTId(UUID.randomUUID().toString())
+				.withIssuedAt(new Date(now))
+				.withClaim(SecurityConstants.ISSUED_AT_MILLIS_CLAIM, now)
+				.withExpiresAt(new Date(now + SecurityConstants.EXPIRATION_TIME))
+				.sign(algorithm);
+	}
+
+	@Benchmark
+	public String verify() {
+		return verifier.verify(token).getSubject();
+	}
+
+	@Benchmark
+	public boolean verifyCached() {
+		VerifiedTokenCache.Entry entry = cache.get(token, System.currentTimeMillis());
+		return revocations.isRevoked(entry.getSubject(), entry.getTokenId(), entry.getIssuedAt());
+	}
+
+}
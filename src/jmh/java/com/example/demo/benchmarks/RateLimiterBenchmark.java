@@ -0,0 +1,98 @@
+package com.example.demo.benchmarks;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.demo.security.RateLimitFilter;
+import com.example.demo.security.RateLimiter;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The per-request cost of rate limiting, which has to stay under a microsecond: a permit for one
+ * hot key, permits spread over many keys, and the whole filter including route matching. Budgets
+ * are set high enough that every request is let through, as on the common path. The request
+ * object is built once so only the filter itself is timed; pass {@code -t} to add contention.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+	private static final int KEYS = 10_000;
+
+	private static final FilterChain CHAIN = (request, response) -> {
+	};
+
+	private RateLimiter limiter;
+
+	private String[] keys;
+
+	private RateLimitFilter filter;
+
+	private MockHttpServletRequest request;
+
+	private MockHttpServletResponse response;
+
+	@Setup
+	public void setup() {
+		// Without the application's logging config Logback logs at DEBUG, and the filter base class
+		// would then time its own debug output.
+		((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+		limiter = new RateLimiter(1e9, 1_000_000, 100_000);
+		keys = new String[KEYS];
+		for (int i = 0; i < KEYS; i++) {
+			keys[i] = "user-" + i;
+		}
+		RateLimitFilter.Route route = new RateLimitFilter.Route();
+		route.setPath("/api/cart/**");
+		route.setPerSecond(1e9);
+		route.setBurst(1_000_000);
+		filter = new RateLimitFilter.ByIp(Collections.singletonList(route), 100_000, new SimpleMeterRegistry());
+		request = new MockHttpServletRequest("POST", "/api/cart/addToCart");
+		request.setRemoteAddr("10.0.0.1");
+		response = new MockHttpServletResponse();
+	}
+
+	@Benchmark
+	public long acquireHotKey() {
+		return limiter.acquire("shopper", System.nanoTime());
+	}
+
+	@Benchmark
+	public long acquireSpreadKeys() {
+		return limiter.acquire(keys[ThreadLocalRandom.current().nextInt(KEYS)], System.nanoTime());
+	}
+
+	@Benchmark
+	public int filter() throws IOException, ServletException {
+		filter.doFilter(request, response, CHAIN);
+		return response.getStatus();
+	}
+
+}
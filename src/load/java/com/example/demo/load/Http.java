@@ -0,0 +1,91 @@
+package com.example.demo.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal blocking JSON client. Bodies are always read to the end so the JDK can keep the
+ * connection alive for the next call.
+ */
+class Http {
+
+	private final String baseUrl;
+
+	Http(String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	Response get(String path, String token) throws IOException {
+		return send("GET", path, null, token);
+	}
+
+	Response post(String path, String body, String token) throws IOException {
+		return send("POST", path, body, token);
+	}
+
+	private Response send(String method, String path, String body, String token) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+		connection.setRequestMethod(method);
+		connection.setRequestProperty("Accept", "application/json");
+		if(token != null) {
+			connection.setRequestProperty("Authorization", token);
+		}
+		if(body != null) {
+			connection.setDoOutput(true);
+			connection.setRequestProperty("Content-Type", "application/json");
+			try (OutputStream out = connection.getOutputStream()) {
+				out.write(body.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		int status = connection.getResponseCode();
+		InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		if(in != null) {
+			try (InputStream stream = in) {
+				byte[] buffer = new byte[8192];
+				int n;
+				while ((n = stream.read(buffer)) > 0) {
+					content.write(buffer, 0, n);
+				}
+			}
+		}
+		return new Response(status, connection, new String(content.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	static final class Response {
+
+		private final int status;
+
+		private final HttpURLConnection connection;
+
+		private final String body;
+
+		private Response(int status, HttpURLConnection connection, String body) {
+			this.status = status;
+			this.connection = connection;
+			this.body = body;
+		}
+
+		int getStatus() {
+			return status;
+		}
+
+		boolean isSuccess() {
+			return status >= 200 && status < 300;
+		}
+
+		String getHeader(String name) {
+			return connection.getHeaderField(name);
+		}
+
+		String getBody() {
+			return body;
+		}
+	}
+
+}
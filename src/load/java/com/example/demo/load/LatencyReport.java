@@ -0,0 +1,113 @@
+package com.example.demo.load;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Per-endpoint latency histograms (microseconds, three significant digits) and error counts,
+ * recorded only between {@link #start()} and {@link #stop()}.
+ */
+class LatencyReport {
+
+	private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+	private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+
+	private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+	private volatile boolean recording;
+
+	private volatile long startedAt;
+
+	private volatile long stoppedAt;
+
+	void start() {
+		startedAt = System.nanoTime();
+		recording = true;
+	}
+
+	void stop() {
+		recording = false;
+		stoppedAt = System.nanoTime();
+	}
+
+	void record(String endpoint, long nanos) {
+		if(recording) {
+			latencies.computeIfAbsent(endpoint, e -> new ConcurrentHistogram(MAX_LATENCY_MICROS, 3))
+					.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+		}
+	}
+
+	void failure(String endpoint) {
+		if(recording) {
+			failures.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+		}
+	}
+
+	Map<String, Map<String, Object>> summary() {
+		double seconds = (stoppedAt - startedAt) / 1e9;
+		Map<String, Map<String, Object>> endpoints = new TreeMap<>();
+		latencies.forEach((endpoint, histogram) -> {
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("requests", histogram.getTotalCount());
+			row.put("errors", failures.containsKey(endpoint) ? failures.get(endpoint).sum() : 0L);
+			row.put("throughputPerSecond", round(histogram.getTotalCount() / seconds));
+			row.put("p50Millis", millis(histogram.getValueAtPercentile(50)));
+			row.put("p99Millis", millis(histogram.getValueAtPercentile(99)));
+			row.put("p999Millis", millis(histogram.getValueAtPercentile(99.9)));
+			row.put("maxMillis", millis(histogram.getMaxValue()));
+			endpoints.put(endpoint, row);
+		});
+		failures.forEach((endpoint, count) -> endpoints.computeIfAbsent(endpoint, e -> {
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("requests", 0L);
+			row.put("errors", count.sum());
+			return row;
+		}));
+		return endpoints;
+	}
+
+	void print(PrintStream out) {
+		out.printf("%-38s %9s %7s %9s %9s %9s %9s %9s%n",
+				"endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+		summary().forEach((endpoint, row) -> out.printf("%-38s %9s %7s %9s %9s %9s %9s %9s%n", endpoint,
+				row.get("requests"), row.get("errors"), value(row, "throughputPerSecond"), value(row, "p50Millis"),
+				value(row, "p99Millis"), value(row, "p999Millis"), value(row, "maxMillis")));
+	}
+
+	void write(File file, Map<String, String> options) throws IOException {
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("options", options);
+		json.put("seconds", round((stoppedAt - startedAt) / 1e9));
+		json.put("endpoints", summary());
+		if(file.getParentFile() != null) {
+			file.getParentFile().mkdirs();
+		}
+		new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, json);
+	}
+
+	private static Object value(Map<String, Object> row, String key) {
+		return row.containsKey(key) ? row.get(key) : "-";
+	}
+
+	private static double millis(long micros) {
+		return round(micros / 1000.0);
+	}
+
+	private static double round(double value) {
+		return Math.round(value * 100) / 100.0;
+	}
+
+}
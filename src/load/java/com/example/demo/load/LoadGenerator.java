@@ -0,0 +1,128 @@
+package com.example.demo.load;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.demo.EcommerceApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Starts the application on a random port and drives it with concurrent shopper sessions: sign up,
+ * log in, then a weighted mix of browsing, cart and order calls. Latency is recorded per endpoint
+ * after a warm-up and reported as throughput and percentiles, on the console and as JSON.
+ *
+ * <p>Options are {@code --name=value} arguments; anything not listed here is passed on to Spring.
+ * Rate limiting is off unless {@code --security.rate-limit.enabled=true} is passed.
+ * <ul>
+ * <li>{@code users} concurrent virtual users (32)</li>
+ * <li>{@code warmup} seconds before recording starts (10)</li>
+ * <li>{@code duration} seconds recorded (30)</li>
+ * <li>{@code actions} calls per session after login (20)</li>
+ * <li>{@code mix} action weights (browse:6,addToCart:3,submit:1,history:1)</li>
+ * <li>{@code seed} base random seed; the same seed replays the same sessions (42)</li>
+ * <li>{@code report} JSON report file (target/load-report.json)</li>
+ * </ul>
+ */
+public class LoadGenerator {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new LinkedHashMap<>();
+		options.put("users", "32");
+		options.put("warmup", "10");
+		options.put("duration", "30");
+		options.put("actions", "20");
+		options.put("mix", "browse:6,addToCart:3,submit:1,history:1");
+		options.put("seed", "42");
+		options.put("report", "target/load-report.json");
+		List<String> springArgs = new ArrayList<>();
+		for (String arg : args) {
+			int eq = arg.indexOf('=');
+			String name = arg.startsWith("--") && eq > 2 ? arg.substring(2, eq) : null;
+			if(name != null && options.containsKey(name)) {
+				options.put(name, arg.substring(eq + 1));
+			} else {
+				springArgs.add(arg);
+			}
+		}
+		springArgs.add("--server.port=0");
+		// Every virtual user logs in from this one address, which the production login budget would throttle.
+		if(springArgs.stream().noneMatch(arg -> arg.startsWith("--security.rate-limit.enabled="))) {
+			springArgs.add("--security.rate-limit.enabled=false");
+		}
+
+		ConfigurableApplicationContext context = SpringApplication.run(EcommerceApplication.class,
+				springArgs.toArray(new String[0]));
+		try {
+			int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+			LatencyReport report = run("http://localhost:" + port, options);
+			report.print(System.out);
+			File file = new File(options.get("report"));
+			report.write(file, options);
+			System.out.println("Report written to " + file.getAbsolutePath());
+		} finally {
+			context.close();
+		}
+	}
+
+	static LatencyReport run(String baseUrl, Map<String, String> options) throws Exception {
+		int users = Integer.parseInt(options.get("users"));
+		long warmup = Long.parseLong(options.get("warmup"));
+		long duration = Long.parseLong(options.get("duration"));
+		int actions = Integer.parseInt(options.get("actions"));
+		long seed = Long.parseLong(options.get("seed"));
+		ShopperSession.Mix mix = ShopperSession.Mix.parse(options.get("mix"));
+
+		List<Long> itemIds = catalog(baseUrl);
+		LatencyReport report = new LatencyReport();
+		AtomicBoolean running = new AtomicBoolean(true);
+		List<Thread> threads = new ArrayList<>();
+		for (int user = 0; user < users; user++) {
+			ShopperSession session = new ShopperSession(baseUrl, user, seed + user, actions, mix, itemIds,
+					report, running);
+			Thread thread = new Thread(session, "shopper-" + user);
+			threads.add(thread);
+			thread.start();
+		}
+
+		System.out.println("Warming up " + users + " users for " + warmup + "s");
+		TimeUnit.SECONDS.sleep(warmup);
+		report.start();
+		System.out.println("Recording for " + duration + "s");
+		TimeUnit.SECONDS.sleep(duration);
+		report.stop();
+		running.set(false);
+		for (Thread thread : threads) {
+			thread.join(TimeUnit.SECONDS.toMillis(30));
+		}
+		return report;
+	}
+
+	private static List<Long> catalog(String baseUrl) throws Exception {
+		// Item ids come from the sequence, so ask the running catalog rather than assuming them.
+		Http http = new Http(baseUrl);
+		String username = "load-probe";
+		http.post("/api/user/create", "{\"username\":\"" + username
+				+ "\",\"password\":\"password\",\"confirmPassword\":\"password\"}", null);
+		String token = http.post("/login", "{\"username\":\"" + username + "\",\"password\":\"password\"}", null)
+				.getHeader("Authorization");
+		List<Long> ids = new ArrayList<>();
+		for (JsonNode item : new ObjectMapper().readTree(http.get("/api/item", token).getBody())) {
+			ids.add(item.get("id").asLong());
+		}
+		if(ids.isEmpty()) {
+			throw new IllegalStateException("The catalog is empty; nothing to shop for");
+		}
+		return ids;
+	}
+
+}
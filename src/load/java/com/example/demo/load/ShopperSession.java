@@ -0,0 +1,171 @@
+package com.example.demo.load;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One virtual user. Each session signs up a fresh user, logs in and then performs a fixed number of
+ * actions drawn from the mix; the user's random sequence is fixed by its seed.
+ */
+class ShopperSession implements Runnable {
+
+	static final String SIGN_UP = "POST /api/user/create";
+	static final String LOGIN = "POST /login";
+	static final String BROWSE = "GET /api/item";
+	static final String ADD_TO_CART = "POST /api/cart/addToCart";
+	static final String SUBMIT = "POST /api/order/submit/{username}";
+	static final String HISTORY = "GET /api/order/history/{username}";
+
+	private final Http http;
+
+	private final int user;
+
+	private final Random random;
+
+	private final int actions;
+
+	private final Mix mix;
+
+	private final List<Long> itemIds;
+
+	private final LatencyReport report;
+
+	private final AtomicBoolean running;
+
+	ShopperSession(String baseUrl, int user, long seed, int actions, Mix mix, List<Long> itemIds,
+			LatencyReport report, AtomicBoolean running) {
+		this.http = new Http(baseUrl);
+		this.user = user;
+		this.random = new Random(seed);
+		this.actions = actions;
+		this.mix = mix;
+		this.itemIds = itemIds;
+		this.report = report;
+		this.running = running;
+	}
+
+	@Override
+	public void run() {
+		for (int session = 0; running.get(); session++) {
+			try {
+				shop("shopper-" + user + "-" + session);
+			} catch (IOException e) {
+				report.failure("I/O");
+			}
+		}
+	}
+
+	private void shop(String username) throws IOException {
+		Http.Response created = call(SIGN_UP, () -> http.post("/api/user/create", "{\"username\":\"" + username
+				+ "\",\"password\":\"password\",\"confirmPassword\":\"password\"}", null));
+		if(!created.isSuccess()) {
+			return;
+		}
+		Http.Response login = call(LOGIN, () -> http.post("/login",
+				"{\"username\":\"" + username + "\",\"password\":\"password\"}", null));
+		String token = login.getHeader("Authorization");
+		if(!login.isSuccess() || token == null) {
+			return;
+		}
+		for (int i = 0; i < actions && running.get(); i++) {
+			switch (mix.next(random)) {
+				case BROWSE:
+					call(BROWSE, () -> http.get("/api/item", token));
+					break;
+				case ADD_TO_CART:
+					long itemId = itemIds.get(random.nextInt(itemIds.size()));
+					int quantity = 1 + random.nextInt(3);
+					call(ADD_TO_CART, () -> http.post("/api/cart/addToCart", "{\"username\":\"" + username
+							+ "\",\"itemId\":" + itemId + ",\"quantity\":" + quantity + "}", token));
+					break;
+				case SUBMIT:
+					call(SUBMIT, () -> http.post("/api/order/submit/" + username, null, token));
+					break;
+				case HISTORY:
+					call(HISTORY, () -> http.get("/api/order/history/" + username, token));
+					break;
+			}
+		}
+	}
+
+	private Http.Response call(String endpoint, Callable<Http.Response> request) throws IOException {
+		long start = System.nanoTime();
+		Http.Response response;
+		try {
+			response = request.call();
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException(e);
+		}
+		if(response.isSuccess()) {
+			report.record(endpoint, System.nanoTime() - start);
+		} else {
+			report.failure(endpoint);
+		}
+		return response;
+	}
+
+	enum Action {
+		BROWSE, ADD_TO_CART, SUBMIT, HISTORY;
+
+		static Action of(String name) {
+			switch (name.trim()) {
+				case "browse":
+					return BROWSE;
+				case "addToCart":
+					return ADD_TO_CART;
+				case "submit":
+					return SUBMIT;
+				case "history":
+					return HISTORY;
+				default:
+					throw new IllegalArgumentException("Unknown action " + name);
+			}
+		}
+	}
+
+	/**
+	 * Weighted choice of the next action, parsed from e.g. {@code browse:6,addToCart:3,submit:1}.
+	 */
+	static final class Mix {
+
+		private final List<Action> actions = new ArrayList<>();
+
+		private final List<Integer> cumulative = new ArrayList<>();
+
+		private int total;
+
+		static Mix parse(String spec) {
+			Mix mix = new Mix();
+			for (String part : spec.split(",")) {
+				String[] nameAndWeight = part.split(":");
+				int weight = Integer.parseInt(nameAndWeight[1].trim());
+				if(weight > 0) {
+					mix.total += weight;
+					mix.actions.add(Action.of(nameAndWeight[0]));
+					mix.cumulative.add(mix.total);
+				}
+			}
+			if(mix.total == 0) {
+				throw new IllegalArgumentException("Empty mix " + spec);
+			}
+			return mix;
+		}
+
+		Action next(Random random) {
+			int pick = random.nextInt(total);
+			for (int i = 0; i < actions.size(); i++) {
+				if(pick < cumulative.get(i)) {
+					return actions.get(i);
+				}
+			}
+			throw new IllegalStateException();
+		}
+	}
+
+}
@@ -1,20 +1,25 @@
 package com.example.demo;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.example.demo.security.PooledBCryptPasswordEncoder;
 
 @EnableJpaRepositories("com.example.demo.model.persistence.repositories")
 @EntityScan("com.example.demo.model.persistence")
 @SpringBootApplication(exclude = {SecurityAutoConfiguration.class})
 public class EcommerceApplication {
 	@Bean
-	public BCryptPasswordEncoder bCryptPasswordEncoder(){
-		return new BCryptPasswordEncoder();
+	public PooledBCryptPasswordEncoder bCryptPasswordEncoder(@Value("${security.bcrypt.strength:10}") int strength,
+			@Value("${security.bcrypt.pool-size:0}") int poolSize,
+			@Value("${security.bcrypt.queue-capacity:64}") int queueCapacity){
+		return new PooledBCryptPasswordEncoder(strength,
+				poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors(), queueCapacity);
 	}
 
 	public static void main(String[] args) {
@@ -0,0 +1,58 @@
+package com.example.demo;
+
+import java.io.IOException;
+import java.net.URI;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+/**
+ * Supplies the JCache manager behind Hibernate's second-level cache. Hibernate 5.3 only accepts a
+ * plain URI for the cache configuration, so the Ehcache file is resolved as a Spring resource here
+ * and the ready manager is handed over instead. Each application context gets a manager of its own,
+ * so contexts on different databases never see each other's rows.
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+	@Bean(destroyMethod = "close")
+	public CacheManager hibernateCacheManager(@Value("${app.cache.config:classpath:ehcache.xml}") Resource config)
+			throws IOException {
+		ClassLoader classLoader = getClass().getClassLoader();
+		EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching
+				.getCachingProvider(EhcacheCachingProvider.class.getName(), classLoader);
+		URI uri = URI.create("urn:hibernate-cache:" + Integer.toHexString(System.identityHashCode(this)));
+		return provider.getCacheManager(uri, new XmlConfiguration(config.getURL(), classLoader));
+	}
+
+	/**
+	 * Size, eviction and expiry counts per region. Hit and miss rates per region come with Boot's
+	 * Hibernate metrics once {@code hibernate.generate_statistics} is on.
+	 */
+	@Bean
+	public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager) {
+		return registry -> {
+			for (String name : hibernateCacheManager.getCacheNames()) {
+				JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(name), Tags.empty());
+			}
+		};
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer secondLevelCacheManager(CacheManager hibernateCacheManager) {
+		return properties -> properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.example.demo.controllers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.logging.LogEvents;
+import com.example.demo.security.TokenRevocationService;
+import com.example.demo.security.VerifiedTokenCache;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+	@Autowired
+	private TokenRevocationService tokenRevocationService;
+
+	/**
+	 * Revokes the token this request was made with.
+	 */
+	@PostMapping("/logout")
+	public ResponseEntity<Void> logout(Authentication authentication) {
+		Object details = authentication.getDetails();
+		if(!(details instanceof VerifiedTokenCache.Entry)
+				|| ((VerifiedTokenCache.Entry) details).getTokenId() == null) {
+			log.error("Unable to log out - token has no id", LogEvents.event("auth.logout.invalid"),
+					LogEvents.user(authentication.getName()));
+			return ResponseEntity.badRequest().build();
+		}
+		VerifiedTokenCache.Entry token = (VerifiedTokenCache.Entry) details;
+		tokenRevocationService.revoke(token.getTokenId(), authentication.getName(), token.getExpiresAt());
+		log.info("Logged out", LogEvents.event("auth.logout"), LogEvents.user(authentication.getName()));
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * Revokes every token issued to the caller so far, on every device.
+	 */
+	@PostMapping("/logoutAll")
+	public ResponseEntity<Void> logoutAll(Authentication authentication) {
+		if(!tokenRevocationService.revokeAll(authentication.getName())) {
+			log.error("Unable to find user {}", LogEvents.user(authentication.getName()));
+			return ResponseEntity.notFound().build();
+		}
+		log.info("Logged out everywhere", LogEvents.event("auth.logout.all"), LogEvents.user(authentication.getName()));
+		return ResponseEntity.noContent().build();
+	}
+
+}
@@ -1,24 +1,36 @@
 package com.example.demo.controllers;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.IntStream;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.demo.logging.LogEvents;
 import com.example.demo.model.persistence.Cart;
 import com.example.demo.model.persistence.Item;
-import com.example.demo.model.persistence.User;
-import com.example.demo.model.persistence.repositories.CartRepository;
 import com.example.demo.model.persistence.repositories.ItemRepository;
-import com.example.demo.model.persistence.repositories.UserRepository;
+import com.example.demo.model.requests.BatchModifyCartRequest;
+import com.example.demo.model.requests.CartOperation;
 import com.example.demo.model.requests.ModifyCartRequest;
+import com.example.demo.model.responses.CartView;
+import com.example.demo.service.CartService;
+import com.example.demo.service.UserIdentity;
+import com.example.demo.service.UserIdentityCache;
 
 @Slf4j
 @RestController
@@ -26,52 +38,148 @@ import com.example.demo.model.requests.ModifyCartRequest;
 public class CartController {
 	
 	@Autowired
-	private UserRepository userRepository;
+	private UserIdentityCache userIdentityCache;
 	
 	@Autowired
-	private CartRepository cartRepository;
+	private CartService cartService;
 	
 	@Autowired
 	private ItemRepository itemRepository;
 	
 	@PostMapping("/addToCart")
-	public ResponseEntity<Cart> addTocart(@RequestBody ModifyCartRequest request) {
-		User user = userRepository.findByUsername(request.getUsername());
+	public ResponseEntity<?> addTocart(@RequestBody ModifyCartRequest request,
+			@RequestParam(defaultValue = "full") String view) {
+		long start = System.nanoTime();
+		CartView.Mode mode = mode(view);
+		if(mode == null) {
+			return ResponseEntity.badRequest().build();
+		}
+		UserIdentity user = userIdentityCache.get(request.getUsername());
 		if(user == null) {
-			log.error("Unable to find user " + request.getUsername());
+			log.error("Unable to find user {}", LogEvents.user(request.getUsername()));
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 		}
 		Optional<Item> item = itemRepository.findById(request.getItemId());
 		if(!item.isPresent()) {
-			log.error("Unable to find item " + request.getItemId());
+			log.error("Unable to find item {}", LogEvents.item(request.getItemId()));
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		Optional<Cart> cart = modify(user, c -> c.addItem(item.get(), request.getQuantity()));
+		if(!cart.isPresent()) {
+			log.error("Unable to find cart for user {}", LogEvents.user(request.getUsername()));
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 		}
-		Cart cart = user.getCart();
-		IntStream.range(0, request.getQuantity())
-			.forEach(i -> cart.addItem(item.get()));
-		cartRepository.save(cart);
-		log.info("Added item to cart successfully");
-		return ResponseEntity.ok(cart);
+		log.info(LogEvents.SUCCESS, "Added item to cart successfully", LogEvents.event("cart.add"),
+				LogEvents.user(request.getUsername()), LogEvents.item(request.getItemId()),
+				LogEvents.durationSince(start));
+		return respond(cart.get(), mode);
 	}
 	
 	@PostMapping("/removeFromCart")
-	public ResponseEntity<Cart> removeFromcart(@RequestBody ModifyCartRequest request) {
-		User user = userRepository.findByUsername(request.getUsername());
+	public ResponseEntity<?> removeFromcart(@RequestBody ModifyCartRequest request,
+			@RequestParam(defaultValue = "full") String view) {
+		long start = System.nanoTime();
+		CartView.Mode mode = mode(view);
+		if(mode == null) {
+			return ResponseEntity.badRequest().build();
+		}
+		UserIdentity user = userIdentityCache.get(request.getUsername());
 		if(user == null) {
-			log.error("Unable to find user " + request.getUsername());
+			log.error("Unable to find user {}", LogEvents.user(request.getUsername()));
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 		}
 		Optional<Item> item = itemRepository.findById(request.getItemId());
 		if(!item.isPresent()) {
-			log.error("Unable to find item " + request.getItemId());
+			log.error("Unable to find item {}", LogEvents.item(request.getItemId()));
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 		}
-		Cart cart = user.getCart();
-		IntStream.range(0, request.getQuantity())
-			.forEach(i -> cart.removeItem(item.get()));
-		cartRepository.save(cart);
-		log.info("Removed item from cart successfully");
-		return ResponseEntity.ok(cart);
+		Optional<Cart> cart = modify(user, c -> c.removeItem(item.get(), request.getQuantity()));
+		if(!cart.isPresent()) {
+			log.error("Unable to find cart for user {}", LogEvents.user(request.getUsername()));
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		log.info(LogEvents.SUCCESS, "Removed item from cart successfully", LogEvents.event("cart.remove"),
+				LogEvents.user(request.getUsername()), LogEvents.item(request.getItemId()),
+				LogEvents.durationSince(start));
+		return respond(cart.get(), mode);
 	}
-		
+
+	@PostMapping("/batch")
+	public ResponseEntity<?> modifyCart(@RequestBody BatchModifyCartRequest request,
+			@RequestParam(defaultValue = "full") String view) {
+		long start = System.nanoTime();
+		CartView.Mode mode = mode(view);
+		if(mode == null) {
+			return ResponseEntity.badRequest().build();
+		}
+		UserIdentity user = userIdentityCache.get(request.getUsername());
+		if(user == null) {
+			log.error("Unable to find user {}", LogEvents.user(request.getUsername()));
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		List<CartOperation> operations = request.getOperations();
+		if(operations == null || operations.stream()
+				.anyMatch(op -> op.getAction() == null || op.getQuantity() < 0)) {
+			log.error("Unable to modify cart - invalid operations");
+			return ResponseEntity.badRequest().build();
+		}
+		Set<Long> itemIds = operations.stream().map(CartOperation::getItemId).collect(Collectors.toSet());
+		Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+				.collect(Collectors.toMap(Item::getId, Function.identity()));
+		if(items.size() != itemIds.size()) {
+			itemIds.removeAll(items.keySet());
+			log.error("Unable to find items {}", LogEvents.item(itemIds));
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		Optional<Cart> cart = modify(user, c -> {
+			for (CartOperation op : operations) {
+				Item item = items.get(op.getItemId());
+				switch (op.getAction()) {
+					case ADD:
+						c.addItem(item, op.getQuantity());
+						break;
+					case REMOVE:
+						c.removeItem(item, op.getQuantity());
+						break;
+					case SET:
+						c.setQuantity(item, op.getQuantity());
+						break;
+				}
+			}
+		});
+		if(!cart.isPresent()) {
+			log.error("Unable to find cart for user {}", LogEvents.user(request.getUsername()));
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		log.info(LogEvents.SUCCESS, "Modified cart successfully", LogEvents.event("cart.batch"),
+				LogEvents.user(request.getUsername()), LogEvents.durationSince(start));
+		return respond(cart.get(), mode);
+	}
+
+	@ExceptionHandler(OptimisticLockingFailureException.class)
+	public ResponseEntity<Cart> onConflict(OptimisticLockingFailureException e) {
+		log.error("Unable to modify cart - {}", e.getMessage(), LogEvents.event("cart.conflict"));
+		return ResponseEntity.status(HttpStatus.CONFLICT).build();
+	}
+
+	private static CartView.Mode mode(String view) {
+		try {
+			return CartView.Mode.valueOf(view.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			log.error("Unable to modify cart - unknown view {}", view);
+			return null;
+		}
+	}
+
+	/**
+	 * The full view is the cart entity itself, as before; the others are the smaller {@link CartView}.
+	 */
+	private static ResponseEntity<?> respond(Cart cart, CartView.Mode mode) {
+		return ResponseEntity.ok(mode == CartView.Mode.FULL ? cart : CartView.of(cart, mode));
+	}
+
+	private Optional<Cart> modify(UserIdentity user, Consumer<Cart> mutation) {
+		return user.getCartId() == null ? Optional.empty() : cartService.modify(user.getCartId(), mutation);
+	}
+
 }
@@ -0,0 +1,61 @@
+package com.example.demo.controllers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.logging.LogEvents;
+import com.example.demo.model.responses.ImportReport;
+import com.example.demo.service.ItemImportService;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/items")
+public class ItemAdminController {
+
+	public static final String TEXT_CSV = "text/csv";
+
+	public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+	@Autowired
+	private ItemImportService itemImportService;
+
+	@PostMapping(value = "/import", consumes = {TEXT_CSV, APPLICATION_NDJSON})
+	public ResponseEntity<ImportReport> importItems(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+			InputStream body) throws IOException {
+		ImportReport report = itemImportService.importItems(reader(body), format(contentType));
+		log.info("Imported {} of {} items", report.getRowsWritten(), report.getRowsRead(), LogEvents.event("item.import"));
+		return ResponseEntity.ok(report);
+	}
+
+	@PostMapping(value = "/prices", consumes = {TEXT_CSV, APPLICATION_NDJSON})
+	public ResponseEntity<ImportReport> updatePrices(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+			InputStream body) throws IOException {
+		ImportReport report = itemImportService.updatePrices(reader(body), format(contentType));
+		log.info("Updated {} of {} item prices", report.getRowsWritten(), report.getRowsRead(),
+				LogEvents.event("item.reprice"));
+		return ResponseEntity.ok(report);
+	}
+
+	private static BufferedReader reader(InputStream body) {
+		return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+	}
+
+	private static ItemImportService.Format format(String contentType) {
+		return MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))
+				? ItemImportService.Format.CSV : ItemImportService.Format.NDJSON;
+	}
+
+}
@@ -2,16 +2,30 @@ package com.example.demo.controllers;
 
 import java.util.List;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.demo.model.persistence.Item;
 import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.model.responses.ItemPage;
+import com.example.demo.service.CatalogSnapshot;
+import com.example.demo.service.ItemCatalog;
+import com.example.demo.service.ItemPager;
+import com.example.demo.service.ItemSearchIndex;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/item")
 public class ItemController {
@@ -19,22 +33,111 @@ public class ItemController {
 	@Autowired
 	private ItemRepository itemRepository;
 	
+	@Autowired
+	private ItemCatalog itemCatalog;
+
+	@Autowired
+	private ItemPager itemPager;
+
+	@Autowired
+	private ItemSearchIndex itemSearchIndex;
+
 	@GetMapping
-	public ResponseEntity<List<Item>> getItems() {
-		return ResponseEntity.ok(itemRepository.findAll());
+	public ResponseEntity<byte[]> getItems(WebRequest request,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		CatalogSnapshot catalog = itemCatalog.current();
+		boolean gzip = acceptsGzip(acceptEncoding);
+		String eTag = gzip ? catalog.getGzippedETag() : catalog.getETag();
+		if(request.checkNotModified(eTag)) {
+			return null;
+		}
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+				.eTag(eTag)
+				.contentType(MediaType.APPLICATION_JSON_UTF8)
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		return gzip ? response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(catalog.getGzippedJson())
+				: response.body(catalog.getJson());
 	}
 	
+	@GetMapping("/page")
+	@Transactional(readOnly = true)
+	public ResponseEntity<ItemPage> getItemPage(@RequestParam(defaultValue = "id") String sort,
+			@RequestParam(defaultValue = "asc") String direction,
+			@RequestParam(defaultValue = "20") int size,
+			@RequestParam(required = false) String cursor) {
+		try {
+			return ResponseEntity.ok(itemPager.page(ItemPager.SortKey.valueOf(sort.toUpperCase()),
+					Sort.Direction.fromString(direction), size, cursor));
+		} catch (IllegalArgumentException e) {
+			log.error("Unable to page items - {}", e.getMessage());
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
 	@GetMapping("/{id}")
+	@Transactional(readOnly = true)
 	public ResponseEntity<Item> getItemById(@PathVariable Long id) {
 		return ResponseEntity.of(itemRepository.findById(id));
 	}
 	
 	@GetMapping("/name/{name}")
+	@Transactional(readOnly = true)
 	public ResponseEntity<List<Item>> getItemsByName(@PathVariable String name) {
 		List<Item> items = itemRepository.findByName(name);
 		return items == null || items.isEmpty() ? ResponseEntity.notFound().build()
 				: ResponseEntity.ok(items);
 			
 	}
-	
+
+	@GetMapping("/search")
+	public ResponseEntity<List<Item>> searchItems(@RequestParam String q,
+			@RequestParam(defaultValue = "20") int limit) {
+		if(limit < 1 || limit > ItemPager.MAX_PAGE_SIZE) {
+			return ResponseEntity.badRequest().build();
+		}
+		return ResponseEntity.ok(itemSearchIndex.search(q, limit));
+	}
+
+	@GetMapping("/suggest")
+	public ResponseEntity<List<String>> suggestItemNames(@RequestParam String prefix,
+			@RequestParam(defaultValue = "10") int limit) {
+		if(limit < 1 || limit > ItemPager.MAX_PAGE_SIZE) {
+			return ResponseEntity.badRequest().build();
+		}
+		return ResponseEntity.ok(itemSearchIndex.suggest(prefix, limit));
+	}
+
+	/**
+	 * Whether an {@code Accept-Encoding} value allows gzip: listed with a non-zero q-value, or not
+	 * listed and covered by a non-zero {@code *}.
+	 */
+	static boolean acceptsGzip(String acceptEncoding) {
+		if(acceptEncoding == null) {
+			return false;
+		}
+		Double wildcard = null;
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.split(";");
+			String name = parts[0].trim();
+			double q = 1;
+			for (int i = 1; i < parts.length; i++) {
+				String param = parts[i].trim();
+				if(param.startsWith("q=") || param.startsWith("Q=")) {
+					try {
+						q = Double.parseDouble(param.substring(2).trim());
+					} catch (NumberFormatException e) {
+						q = 0;
+					}
+				}
+			}
+			if(name.equalsIgnoreCase("gzip")) {
+				return q > 0;
+			}
+			if(name.equals("*")) {
+				wildcard = q;
+			}
+		}
+		return wildcard != null && wildcard > 0;
+	}
+
 }
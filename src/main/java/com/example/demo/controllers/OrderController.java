@@ -1,54 +1,140 @@
 package com.example.demo.controllers;
 
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.example.demo.model.persistence.User;
+import com.example.demo.logging.LogEvents;
+import com.example.demo.model.persistence.Cart;
 import com.example.demo.model.persistence.UserOrder;
+import com.example.demo.model.persistence.repositories.CartRepository;
 import com.example.demo.model.persistence.repositories.OrderRepository;
-import com.example.demo.model.persistence.repositories.UserRepository;
+import com.example.demo.model.responses.OrderStatus;
+import com.example.demo.service.OrderIntakeService;
+import com.example.demo.service.UserIdentity;
+import com.example.demo.service.UserIdentityCache;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/order")
 public class OrderController {
 	
+	private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+	private static final LocalDate HISTORY_START = LocalDate.of(1970, 1, 1);
+
+	private static final LocalDate HISTORY_END = LocalDate.of(9999, 12, 31);
+
+	@Autowired
+	private UserIdentityCache userIdentityCache;
 	
 	@Autowired
-	private UserRepository userRepository;
+	private CartRepository cartRepository;
 	
 	@Autowired
 	private OrderRepository orderRepository;
-	
+
+	@Autowired
+	private OrderIntakeService orderIntakeService;
 	
 	@PostMapping("/submit/{username}")
 	public ResponseEntity<UserOrder> submit(@PathVariable String username) {
-		User user = userRepository.findByUsername(username);
-		if(user == null) {
-			log.error("Unable to find user " + username);
+		long start = System.nanoTime();
+		UserIdentity user = userIdentityCache.get(username);
+		Optional<Cart> cart = user == null || user.getCartId() == null ? Optional.empty()
+				: cartRepository.findById(user.getCartId());
+		if(!cart.isPresent()) {
+			log.error("Unable to find user {}", LogEvents.user(username));
 			return ResponseEntity.notFound().build();
 		}
-		UserOrder order = UserOrder.createFromCart(user.getCart());
+		UserOrder order = UserOrder.createFromCart(cart.get());
 		orderRepository.save(order);
-		log.info("Created order successfully");
+		log.info(LogEvents.SUCCESS, "Created order successfully", LogEvents.event("order.submit"),
+				LogEvents.user(username), LogEvents.order(order.getId()), LogEvents.durationSince(start));
 		return ResponseEntity.ok(order);
 	}
 	
+	@PostMapping("/submitAsync/{username}")
+	public ResponseEntity<OrderStatus> submitAsync(@PathVariable String username) {
+		long start = System.nanoTime();
+		UserIdentity user = userIdentityCache.get(username);
+		Optional<Cart> cart = user == null || user.getCartId() == null ? Optional.empty()
+				: cartRepository.findById(user.getCartId());
+		if(!cart.isPresent()) {
+			log.error("Unable to find user {}", LogEvents.user(username));
+			return ResponseEntity.notFound().build();
+		}
+		OrderStatus status = orderIntakeService.submit(UserOrder.createFromCart(cart.get()));
+		if(status == null) {
+			log.error("Unable to accept order - intake queue is full", LogEvents.event("order.reject"),
+					LogEvents.user(username));
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, "1").build();
+		}
+		log.info(LogEvents.SUCCESS, "Accepted order {}", LogEvents.order(status.getReference()),
+				LogEvents.event("order.accept"), LogEvents.user(username), LogEvents.durationSince(start));
+		return ResponseEntity.accepted()
+				.location(URI.create("/api/order/status/" + status.getReference()))
+				.body(status);
+	}
+
+	@GetMapping("/status/{reference}")
+	public ResponseEntity<OrderStatus> getStatus(@PathVariable String reference) {
+		OrderStatus status = orderIntakeService.getStatus(reference);
+		if(status == null) {
+			log.error("Unable to find order {}", LogEvents.order(reference));
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(status);
+	}
+	
 	@GetMapping("/history/{username}")
-	public ResponseEntity<List<UserOrder>> getOrdersForUser(@PathVariable String username) {
-		User user = userRepository.findByUsername(username);
+	@Transactional(readOnly = true)
+	public ResponseEntity<List<UserOrder>> getOrdersForUser(@PathVariable String username,
+			@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "20") int size,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		UserIdentity user = userIdentityCache.get(username);
 		if(user == null) {
-			log.error("Unable to find user " + username);
+			log.error("Unable to find user {}", LogEvents.user(username));
 			return ResponseEntity.notFound().build();
 		}
-		return ResponseEntity.ok(orderRepository.findByUser(user));
+		if(page < 0 || size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+			log.error("Unable to get order history - invalid page {} of size {}", page, size);
+			return ResponseEntity.badRequest().build();
+		}
+		// Page over ids first so the fetch join below never has to paginate in memory.
+		List<Long> ids = orderRepository.findIdsByUserId(user.getUserId(),
+				toDate(from == null ? HISTORY_START : from),
+				toDate(to == null ? HISTORY_END : to.plusDays(1)),
+				PageRequest.of(page, size));
+		if(ids.isEmpty()) {
+			return ResponseEntity.ok(Collections.emptyList());
+		}
+		return ResponseEntity.ok(orderRepository.findWithItemsByIdIn(ids));
+	}
+
+	private static Date toDate(LocalDate date) {
+		return Date.from(date.atStartOfDay(ZoneOffset.UTC).toInstant());
 	}
 }
@@ -2,9 +2,11 @@ package com.example.demo.controllers;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -12,11 +14,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.demo.logging.LogEvents;
+import com.example.demo.datasource.ReadYourWritesWindow;
 import com.example.demo.model.persistence.Cart;
 import com.example.demo.model.persistence.User;
 import com.example.demo.model.persistence.repositories.CartRepository;
 import com.example.demo.model.persistence.repositories.UserRepository;
 import com.example.demo.model.requests.CreateUserRequest;
+import com.example.demo.security.PasswordHashingUnavailableException;
+import com.example.demo.service.UserIdentity;
+import com.example.demo.service.UserIdentityCache;
 
 @Slf4j
 @RestController
@@ -28,35 +35,55 @@ public class UserController {
 	@Autowired
 	private CartRepository cartRepository;
 
+	@Autowired
+	private UserIdentityCache userIdentityCache;
+
 	@Autowired
 	private BCryptPasswordEncoder bCryptPasswordEncoder;
 
+	// Only present with a read replica.
+	@Autowired(required = false)
+	private ReadYourWritesWindow readYourWritesWindow;
+
 	@GetMapping("/id/{id}")
+	@Transactional(readOnly = true)
 	public ResponseEntity<User> findById(@PathVariable Long id) {
 		return ResponseEntity.of(userRepository.findById(id));
 	}
 	
 	@GetMapping("/{username}")
+	@Transactional(readOnly = true)
 	public ResponseEntity<User> findByUserName(@PathVariable String username) {
-		User user = userRepository.findByUsername(username);
-		return user == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(user);
+		UserIdentity user = userIdentityCache.get(username);
+		return user == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(user.toUser());
 	}
 	
 	@PostMapping("/create")
 	public ResponseEntity<User> createUser(@RequestBody CreateUserRequest createUserRequest) {
 		if(createUserRequest.getPassword().length()<7 ||
 				!createUserRequest.getPassword().equals(createUserRequest.getConfirmPassword())){
-			log.error("Unable to create user - validation failed");
+			log.error("Unable to create user - validation failed", LogEvents.event("user.create.invalid"),
+					LogEvents.user(createUserRequest.getUsername()));
 			return ResponseEntity.badRequest().build();
 		}
 		User user = new User();
 		user.setUsername(createUserRequest.getUsername());
+		try {
+			user.setPassword(bCryptPasswordEncoder.encode(createUserRequest.getPassword()));
+		} catch (PasswordHashingUnavailableException e) {
+			log.error("Unable to create user - password hashing unavailable", LogEvents.event("user.create.unavailable"),
+					LogEvents.user(createUserRequest.getUsername()));
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+		}
 		Cart cart = new Cart();
 		cartRepository.save(cart);
 		user.setCart(cart);
-		user.setPassword(bCryptPasswordEncoder.encode(createUserRequest.getPassword()));
 		userRepository.save(user);
-		log.info("User created successfully");
+		// Sign-up is anonymous, so the request's own window covers nobody; pin the new user instead.
+		if(readYourWritesWindow != null) {
+			readYourWritesWindow.recordWrite(user.getUsername());
+		}
+		log.info("User created successfully", LogEvents.event("user.create"), LogEvents.user(user.getUsername()));
 		return ResponseEntity.ok(user);
 	}
 	
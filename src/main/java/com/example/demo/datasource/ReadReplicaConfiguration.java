@@ -0,0 +1,137 @@
+package com.example.demo.datasource;
+
+import java.sql.SQLException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Splits reads from writes once {@code app.datasource.replica.url} is set. The primary is built
+ * from {@code spring.datasource.*} and the replica from {@code app.datasource.replica.*}, each as
+ * its own Hikari pool; {@code @Transactional(readOnly = true)} work then goes to the replica.
+ * Without the property Boot's single datasource is used unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReadReplicaConfiguration {
+
+	@Bean
+	public ReadYourWritesWindow readYourWritesWindow(
+			@Value("${app.datasource.replica.read-your-writes-ms:2000}") long windowMillis,
+			@Value("${app.datasource.replica.read-your-writes-max-users:10000}") int maxUsers) {
+		return new ReadYourWritesWindow(windowMillis, maxUsers);
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(DataSourceProperties primaryProperties, Environment environment,
+			ReadYourWritesWindow readYourWritesWindow,
+			@Value("${app.datasource.replica.retry-ms:5000}") long retryMillis) {
+		Binder binder = Binder.get(environment);
+		DataSourceProperties replicaProperties = binder.bind("app.datasource.replica", DataSourceProperties.class)
+				.get();
+		// The pools are deliberately not beans: Boot would then try to initialise each of them as the
+		// application datasource.
+		HikariDataSource primary = pool(primaryProperties, binder, "spring.datasource.hikari", "primary");
+		HikariDataSource replica = pool(replicaProperties, binder, "app.datasource.replica.hikari", "replica");
+		return new LazyConnectionDataSourceProxy(
+				new ReplicaRoutingDataSource(primary, replica, readYourWritesWindow, retryMillis));
+	}
+
+	/**
+	 * Boot only finds the pool behind the routing datasource's default target, so the hikaricp.*
+	 * meters for any pool without a tracker yet are attached here.
+	 */
+	@Bean
+	public MeterBinder replicaPoolMetrics(DataSource dataSource) {
+		return registry -> {
+			try {
+				ReplicaRoutingDataSource routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+				for (DataSource pool : new DataSource[] {routing.getPrimary(), routing.getReplica()}) {
+					HikariDataSource hikari = (HikariDataSource) pool;
+					if(hikari.getMetricRegistry() == null && hikari.getMetricsTrackerFactory() == null) {
+						hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+					}
+				}
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+		};
+	}
+
+	/**
+	 * Hibernate would otherwise hold one connection for the whole open-in-view request, so a
+	 * request that first reads and then writes would keep writing through the replica connection.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+		return properties -> properties.put("hibernate.connection.handling_mode",
+				"DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+	}
+
+	/**
+	 * Opens the caller's read-your-writes window around every request that can change state.
+	 */
+	@Bean
+	public WebMvcConfigurer readYourWritesInterceptor(ReadYourWritesWindow readYourWritesWindow) {
+		HandlerInterceptor interceptor = new HandlerInterceptor() {
+			@Override
+			public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+				if(isWrite(request)) {
+					readYourWritesWindow.recordCurrentUserWrite();
+				}
+				return true;
+			}
+
+			@Override
+			public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+					Exception ex) {
+				if(isWrite(request)) {
+					readYourWritesWindow.recordCurrentUserWrite();
+				}
+			}
+		};
+		return new WebMvcConfigurer() {
+			@Override
+			public void addInterceptors(InterceptorRegistry registry) {
+				registry.addInterceptor(interceptor);
+			}
+		};
+	}
+
+	private static boolean isWrite(HttpServletRequest request) {
+		HttpMethod method = HttpMethod.resolve(request.getMethod());
+		return method != HttpMethod.GET && method != HttpMethod.HEAD && method != HttpMethod.OPTIONS;
+	}
+
+	private static HikariDataSource pool(DataSourceProperties properties, Binder binder, String hikariPrefix,
+			String poolName) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		binder.bind(hikariPrefix, Bindable.ofInstance(dataSource));
+		dataSource.setPoolName(poolName);
+		return dataSource;
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.example.demo.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.demo.util.BoundedMaps;
+
+/**
+ * Remembers, per user, until when their reads must stay on the primary because they have just
+ * written. Bounded: when full, expired users are dropped first and then arbitrary ones, which at
+ * worst sends a recent writer's next read to the replica a little early.
+ *
+ * <p>Writes are recorded against the authenticated user, so an anonymous write pins nobody unless
+ * its handler names the user itself, as sign-up does with {@link #recordWrite(String)}.
+ */
+public class ReadYourWritesWindow {
+
+	private final long windowNanos;
+
+	private final int maxUsers;
+
+	private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+	public ReadYourWritesWindow(long windowMillis, int maxUsers) {
+		this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+		this.maxUsers = maxUsers;
+	}
+
+	public void recordWrite(String username) {
+		if(username == null || windowNanos <= 0) {
+			return;
+		}
+		long now = System.nanoTime();
+		if(pinnedUntil.size() >= maxUsers) {
+			BoundedMaps.makeRoom(pinnedUntil, maxUsers, until -> now - until >= 0);
+		}
+		pinnedUntil.put(username, now + windowNanos);
+	}
+
+	public boolean isPinned(String username) {
+		if(username == null) {
+			return false;
+		}
+		Long until = pinnedUntil.get(username);
+		if(until == null) {
+			return false;
+		}
+		if(System.nanoTime() - until >= 0) {
+			pinnedUntil.remove(username, until);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Whether the user of the current request, if any, has written within the window.
+	 */
+	public boolean isCurrentUserPinned() {
+		return isPinned(currentUsername());
+	}
+
+	public void recordCurrentUserWrite() {
+		recordWrite(currentUsername());
+	}
+
+	public int size() {
+		return pinnedUntil.size();
+	}
+
+	private static String currentUsername() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication == null ? null : authentication.getName();
+	}
+
+}
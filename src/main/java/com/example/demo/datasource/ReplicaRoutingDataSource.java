@@ -0,0 +1,138 @@
+package com.example.demo.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.logging.LogEvents;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else to the primary.
+ * Reads stay on the primary while the current user is inside their read-your-writes window, and
+ * whenever the replica cannot hand out a connection; after such a failure the replica is skipped
+ * for {@code retryMillis} so every read does not wait out its connection timeout.
+ *
+ * <p>The routing decision is made when a connection is taken, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: JPA opens its
+ * connection before the transaction is marked read-only.
+ *
+ * <p>A transaction served by the replica may still read the second-level cache but never fills it:
+ * a lagging replica row put there would be served for the region's whole TTL, including to users
+ * inside their read-your-writes window.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+	enum Route {
+		PRIMARY, REPLICA
+	}
+
+	private final DataSource primary;
+
+	private final DataSource replica;
+
+	private final ReadYourWritesWindow readYourWrites;
+
+	private final long retryNanos;
+
+	private volatile long replicaDownUntil;
+
+	private volatile boolean replicaDown;
+
+	public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesWindow readYourWrites,
+			long retryMillis) {
+		this.primary = primary;
+		this.replica = replica;
+		this.readYourWrites = readYourWrites;
+		this.retryNanos = TimeUnit.MILLISECONDS.toNanos(retryMillis);
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(Route.PRIMARY, primary);
+		targets.put(Route.REPLICA, replica);
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+		afterPropertiesSet();
+	}
+
+	public DataSource getPrimary() {
+		return primary;
+	}
+
+	public DataSource getReplica() {
+		return replica;
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+				|| readYourWrites.isCurrentUserPinned()
+				|| (replicaDown && System.nanoTime() - replicaDownUntil < 0)) {
+			return Route.PRIMARY;
+		}
+		return Route.REPLICA;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if(determineCurrentLookupKey() == Route.PRIMARY) {
+			return primary.getConnection();
+		}
+		try {
+			Connection connection = super.getConnection();
+			replicaDown = false;
+			skipCachePutsUntilCompletion();
+			return connection;
+		} catch (SQLException e) {
+			replicaDownUntil = System.nanoTime() + retryNanos;
+			replicaDown = true;
+			log.error("Unable to reach the read replica, reading from the primary - {}", e.getMessage(),
+					LogEvents.event("datasource.replica.unavailable"));
+			return primary.getConnection();
+		}
+	}
+
+	/**
+	 * Switches the transaction's sessions to {@link CacheMode#GET} and restores their mode once the
+	 * transaction completes, for the open-in-view session that outlives it.
+	 */
+	private static void skipCachePutsUntilCompletion() {
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+			if(resource instanceof EntityManagerHolder) {
+				Session session = ((EntityManagerHolder) resource).getEntityManager().unwrap(Session.class);
+				CacheMode previous = session.getCacheMode();
+				if(previous == CacheMode.GET || previous == CacheMode.IGNORE) {
+					continue;
+				}
+				session.setCacheMode(CacheMode.GET);
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+					@Override
+					public void afterCompletion(int status) {
+						if(session.isOpen()) {
+							session.setCacheMode(previous);
+						}
+					}
+				});
+			}
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return primary.getConnection(username, password);
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.example.demo.logging;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import net.logstash.logback.argument.StructuredArgument;
+import net.logstash.logback.argument.StructuredArguments;
+
+/**
+ * Field names and markers shared by the structured log events. Arguments built here show up as
+ * top-level JSON fields in the log file whether or not the message has a placeholder for them.
+ */
+public final class LogEvents {
+
+	/**
+	 * Marks routine success events on hot paths; {@link SuccessSamplingFilter} keeps only a sample.
+	 */
+	public static final Marker SUCCESS = MarkerFactory.getMarker("SUCCESS");
+
+	private LogEvents() {
+	}
+
+	public static StructuredArgument event(String type) {
+		return StructuredArguments.kv("event", type);
+	}
+
+	public static StructuredArgument user(String username) {
+		return StructuredArguments.v("user", username);
+	}
+
+	public static StructuredArgument item(Object itemId) {
+		return StructuredArguments.v("item", itemId);
+	}
+
+	public static StructuredArgument order(Object reference) {
+		return StructuredArguments.v("order", reference);
+	}
+
+	public static StructuredArgument count(long count) {
+		return StructuredArguments.v("count", count);
+	}
+
+	public static StructuredArgument chunk(int number) {
+		return StructuredArguments.v("chunk", number);
+	}
+
+	/**
+	 * Milliseconds since {@code startNanos}, a value taken from {@link System#nanoTime()}.
+	 */
+	public static StructuredArgument durationSince(long startNanos) {
+		return StructuredArguments.kv("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+	}
+
+}
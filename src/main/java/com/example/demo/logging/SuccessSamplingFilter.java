@@ -0,0 +1,41 @@
+package com.example.demo.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Keeps a random fraction of the events marked {@link LogEvents#SUCCESS} at INFO or below and
+ * leaves every other event alone. Running as a turbo filter means a dropped event is never built,
+ * formatted or queued.
+ */
+public class SuccessSamplingFilter extends TurboFilter {
+
+	private double rate = 1.0;
+
+	public void setRate(double rate) {
+		if(rate < 0 || rate > 1) {
+			throw new IllegalArgumentException("Sampling rate must be between 0 and 1 but was " + rate);
+		}
+		this.rate = rate;
+	}
+
+	public double getRate() {
+		return rate;
+	}
+
+	@Override
+	public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+			Throwable t) {
+		if(marker == null || rate >= 1 || level.isGreaterOrEqual(Level.WARN) || !marker.contains(LogEvents.SUCCESS)) {
+			return FilterReply.NEUTRAL;
+		}
+		return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+	}
+
+}
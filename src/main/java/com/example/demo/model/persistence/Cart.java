@@ -1,52 +1,91 @@
 package com.example.demo.model.persistence;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.persistence.ManyToMany;
+import javax.persistence.MapKey;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
 @Table(name = "cart")
 public class Cart {
-	
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_seq")
+	@SequenceGenerator(name = "cart_seq", sequenceName = "cart_seq", allocationSize = 50)
 	@JsonProperty
 	@Column
 	private Long id;
-	
-	@ManyToMany
-	@JsonProperty
-	@Column
-    private List<Item> items;
-	
+
+	// One row per distinct item, keyed by item id, so a quantity change touches a single row.
+	@OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
+	@MapKey(name = "itemId")
+	@JsonIgnore
+	private Map<Long, CartItem> lines;
+
 	@OneToOne(mappedBy = "cart")
 	@JsonProperty
     private User user;
-	
-	@Column
+
+	// Kept in cents so adding and removing items never allocates.
+	@Column(name = "total_cents", nullable = false)
+	@JsonIgnore
+	private long totalCents;
+
+	@Version
 	@JsonProperty
-	private BigDecimal total;
-	
-	public BigDecimal getTotal() {
-		return total;
+	private long version;
+
+	// Items whose line changed since the cart was loaded, for responses that only carry the difference.
+	@Transient
+	@JsonIgnore
+	private Set<Long> changedItemIds;
+
+	// Lines emptied since the cart was loaded. Re-adding the item revives the same row: orphan deletes
+	// are flushed after inserts, so a fresh line would clash with the old one on (cart_id, item_id).
+	@Transient
+	@JsonIgnore
+	private Map<Long, CartItem> removedLines;
+
+	@JsonProperty("total")
+	public Money getTotal() {
+		return Money.ofCents(totalCents);
 	}
 
-	public void setTotal(BigDecimal total) {
-		this.total = total;
+	@JsonProperty("total")
+	public void setTotal(Money total) {
+		this.totalCents = total.getCents();
+	}
+
+	public long getTotalCents() {
+		return totalCents;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
 	}
 
 	public User getUser() {
@@ -65,33 +104,106 @@ public class Cart {
 		this.id = id;
 	}
 
-	public List<Item> getItems() {
-		return items;
+	@JsonProperty("items")
+	public List<CartItem> getItems() {
+		return lines == null ? new ArrayList<>() : new ArrayList<>(lines.values());
+	}
+
+	@JsonProperty("items")
+	public void setItems(List<CartItem> items) {
+		lines = new HashMap<>();
+		for (CartItem line : items) {
+			line.setCart(this);
+			lines.put(line.getItemId(), line);
+		}
+	}
+
+	public CartItem getLine(Long itemId) {
+		return lines == null ? null : lines.get(itemId);
+	}
+
+	public int getQuantity(Long itemId) {
+		CartItem line = getLine(itemId);
+		return line == null ? 0 : line.getQuantity();
 	}
 
-	public void setItems(List<Item> items) {
-		this.items = items;
+	public Set<Long> getChangedItemIds() {
+		return changedItemIds == null ? Collections.emptySet() : Collections.unmodifiableSet(changedItemIds);
 	}
-	
+
+	public void clearChanges() {
+		changedItemIds = null;
+	}
+
 	public void addItem(Item item) {
-		if(items == null) {
-			items = new ArrayList<>();
+		addItem(item, 1);
+	}
+
+	public void addItem(Item item, int quantity) {
+		if(quantity <= 0) {
+			return;
+		}
+		if(lines == null) {
+			lines = new HashMap<>();
 		}
-		items.add(item);
-		if(total == null) {
-			total = new BigDecimal(0);
+		CartItem line = lines.get(item.getId());
+		if(line == null) {
+			line = removedLines == null ? null : removedLines.remove(item.getId());
+			if(line == null) {
+				line = new CartItem(this, item);
+			}
+			lines.put(item.getId(), line);
 		}
-		total = total.add(item.getPrice());
+		// Every unit on the line is charged the item's current price, as if each add priced them afresh.
+		long priceCents = item.getPrice().getCents();
+		if(line.getUnitPriceCents() != priceCents) {
+			adjustTotal(priceCents - line.getUnitPriceCents(), line.getQuantity());
+			line.setUnitPrice(item.getPrice());
+		}
+		line.setQuantity(line.getQuantity() + quantity);
+		adjustTotal(line.getUnitPriceCents(), quantity);
+		changed(item.getId());
 	}
-	
+
 	public void removeItem(Item item) {
-		if(items == null) {
-			items = new ArrayList<>();
+		removeItem(item, 1);
+	}
+
+	public void removeItem(Item item, int quantity) {
+		CartItem line = getLine(item.getId());
+		if(quantity <= 0 || line == null) {
+			return;
+		}
+		int removed = Math.min(quantity, line.getQuantity());
+		line.setQuantity(line.getQuantity() - removed);
+		if(line.getQuantity() == 0) {
+			lines.remove(item.getId());
+			if(removedLines == null) {
+				removedLines = new HashMap<>();
+			}
+			removedLines.put(item.getId(), line);
+		}
+		adjustTotal(line.getUnitPriceCents(), -removed);
+		changed(item.getId());
+	}
+
+	public void setQuantity(Item item, int quantity) {
+		int current = getQuantity(item.getId());
+		if(quantity > current) {
+			addItem(item, quantity - current);
+		} else if(quantity < current) {
+			removeItem(item, current - quantity);
 		}
-		items.remove(item);
-		if(total == null) {
-			total = new BigDecimal(0);
+	}
+
+	private void changed(Long itemId) {
+		if(changedItemIds == null) {
+			changedItemIds = new HashSet<>();
 		}
-		total = total.subtract(item.getPrice());
+		changedItemIds.add(itemId);
+	}
+
+	private void adjustTotal(long unitPriceCents, int quantity) {
+		totalCents = Math.addExact(totalCents, Math.multiplyExact(unitPriceCents, (long) quantity));
 	}
 }
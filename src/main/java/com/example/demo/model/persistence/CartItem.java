@@ -0,0 +1,125 @@
+package com.example.demo.model.persistence;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@Entity
+@Table(name = "cart_item", uniqueConstraints = @UniqueConstraint(columnNames = {"cart_id", "item_id"}))
+public class CartItem {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_item_seq")
+	@SequenceGenerator(name = "cart_item_seq", sequenceName = "cart_item_seq", allocationSize = 50)
+	@JsonIgnore
+	private Long id;
+
+	@ManyToOne
+	@JoinColumn(name = "cart_id", nullable = false)
+	@JsonIgnore
+	private Cart cart;
+
+	@Column(name = "item_id", nullable = false, insertable = false, updatable = false)
+	@JsonProperty
+	private Long itemId;
+
+	@ManyToOne
+	@JoinColumn(name = "item_id", nullable = false)
+	@JsonProperty
+	private Item item;
+
+	@Column(nullable = false)
+	@JsonProperty
+	private int quantity;
+
+	@Column(name = "unit_price_cents", nullable = false)
+	@JsonIgnore
+	private long unitPriceCents;
+
+	@Version
+	@JsonIgnore
+	private long version;
+
+	public CartItem() {
+	}
+
+	public CartItem(Cart cart, Item item) {
+		this.cart = cart;
+		this.item = item;
+		this.itemId = item.getId();
+		this.unitPriceCents = item.getPrice().getCents();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Cart getCart() {
+		return cart;
+	}
+
+	public void setCart(Cart cart) {
+		this.cart = cart;
+	}
+
+	public Long getItemId() {
+		return itemId;
+	}
+
+	public void setItemId(Long itemId) {
+		this.itemId = itemId;
+	}
+
+	public Item getItem() {
+		return item;
+	}
+
+	public void setItem(Item item) {
+		this.item = item;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public void setQuantity(int quantity) {
+		this.quantity = quantity;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
+	public long getUnitPriceCents() {
+		return unitPriceCents;
+	}
+
+	@JsonProperty("unitPrice")
+	public Money getUnitPrice() {
+		return Money.ofCents(unitPriceCents);
+	}
+
+	@JsonProperty("unitPrice")
+	public void setUnitPrice(Money unitPrice) {
+		this.unitPriceCents = unitPrice.getCents();
+	}
+}
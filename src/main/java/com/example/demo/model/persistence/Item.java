@@ -1,25 +1,38 @@
 package com.example.demo.model.persistence;
 
-import java.math.BigDecimal;
-
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.example.demo.service.ItemEntityListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
-@Table(name = "item")
+@Table(name = "item", indexes = {
+		@Index(name = "idx_item_name", columnList = "name, id"),
+		@Index(name = "idx_item_price", columnList = "price, id")})
+@EntityListeners(ItemEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item")
 public class Item {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+	@SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50)
 	@JsonProperty
 	private Long id;
 	
@@ -28,8 +41,9 @@ public class Item {
 	private String name;
 	
 	@Column(nullable = false)
+	@Convert(converter = MoneyConverter.class)
 	@JsonProperty
-	private BigDecimal price;
+	private Money price;
 	
 	@Column(nullable = false)
 	@JsonProperty
@@ -76,11 +90,11 @@ public class Item {
 		this.name = name;
 	}
 
-	public BigDecimal getPrice() {
+	public Money getPrice() {
 		return price;
 	}
 
-	public void setPrice(BigDecimal price) {
+	public void setPrice(Money price) {
 		this.price = price;
 	}
 
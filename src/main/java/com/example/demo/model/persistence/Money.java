@@ -0,0 +1,86 @@
+package com.example.demo.model.persistence;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Immutable amount of money in minor units (cents). Amounts entering from decimals are rounded half
+ * to even to two places; arithmetic is exact and throws {@link ArithmeticException} on overflow.
+ * Serialized to JSON as a plain decimal, so clients see the same numbers as before.
+ */
+public final class Money implements Comparable<Money>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int SCALE = 2;
+
+	public static final Money ZERO = new Money(0);
+
+	private final long cents;
+
+	private Money(long cents) {
+		this.cents = cents;
+	}
+
+	public static Money ofCents(long cents) {
+		return cents == 0 ? ZERO : new Money(cents);
+	}
+
+	@JsonCreator
+	public static Money of(BigDecimal amount) {
+		return ofCents(toCents(amount));
+	}
+
+	public static Money of(String amount) {
+		return of(new BigDecimal(amount));
+	}
+
+	public static long toCents(BigDecimal amount) {
+		return amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+	}
+
+	public long getCents() {
+		return cents;
+	}
+
+	public Money plus(Money other) {
+		return ofCents(Math.addExact(cents, other.cents));
+	}
+
+	public Money minus(Money other) {
+		return ofCents(Math.subtractExact(cents, other.cents));
+	}
+
+	public Money times(long quantity) {
+		return ofCents(Math.multiplyExact(cents, quantity));
+	}
+
+	@JsonValue
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(cents, SCALE);
+	}
+
+	@Override
+	public int compareTo(Money other) {
+		return Long.compare(cents, other.cents);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof Money && ((Money) obj).cents == cents;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(cents);
+	}
+
+	@Override
+	public String toString() {
+		return toBigDecimal().toPlainString();
+	}
+}
@@ -0,0 +1,20 @@
+package com.example.demo.model.persistence;
+
+import java.math.BigDecimal;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+	@Override
+	public BigDecimal convertToDatabaseColumn(Money money) {
+		return money == null ? null : money.toBigDecimal();
+	}
+
+	@Override
+	public Money convertToEntityAttribute(BigDecimal amount) {
+		return amount == null ? null : Money.of(amount);
+	}
+}
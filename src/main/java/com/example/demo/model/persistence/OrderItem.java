@@ -0,0 +1,115 @@
+package com.example.demo.model.persistence;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One line of a submitted order, copied from the cart at submit time so later catalog changes never
+ * alter what the order shows.
+ */
+@Entity
+@Table(name = "order_item")
+public class OrderItem {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+	@SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
+	@JsonIgnore
+	private Long id;
+
+	@ManyToOne
+	@JoinColumn(name = "order_id", nullable = false, updatable = false)
+	@JsonIgnore
+	private UserOrder order;
+
+	@Column(name = "item_id", nullable = false, updatable = false)
+	@JsonProperty
+	private Long itemId;
+
+	@Column(nullable = false, updatable = false)
+	@JsonProperty
+	private String name;
+
+	@Column(name = "unit_price_cents", nullable = false, updatable = false)
+	@JsonIgnore
+	private long unitPriceCents;
+
+	@Column(nullable = false, updatable = false)
+	@JsonProperty
+	private int quantity;
+
+	public OrderItem() {
+	}
+
+	public OrderItem(UserOrder order, CartItem line) {
+		this.order = order;
+		this.itemId = line.getItemId();
+		this.name = line.getItem().getName();
+		this.unitPriceCents = line.getUnitPriceCents();
+		this.quantity = line.getQuantity();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public UserOrder getOrder() {
+		return order;
+	}
+
+	public void setOrder(UserOrder order) {
+		this.order = order;
+	}
+
+	public Long getItemId() {
+		return itemId;
+	}
+
+	public void setItemId(Long itemId) {
+		this.itemId = itemId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public long getUnitPriceCents() {
+		return unitPriceCents;
+	}
+
+	@JsonProperty("unitPrice")
+	public Money getUnitPrice() {
+		return Money.ofCents(unitPriceCents);
+	}
+
+	@JsonProperty("unitPrice")
+	public void setUnitPrice(Money unitPrice) {
+		this.unitPriceCents = unitPrice.getCents();
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public void setQuantity(int quantity) {
+		this.quantity = quantity;
+	}
+}
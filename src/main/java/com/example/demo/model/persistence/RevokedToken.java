@@ -0,0 +1,59 @@
+package com.example.demo.model.persistence;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * A single token revoked before its expiry, by its {@code jti} claim. Rows are only needed until the
+ * token would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_token", indexes = @Index(columnList = "expires_at"))
+public class RevokedToken {
+
+	@Id
+	@Column(name = "token_id", length = 36)
+	private String tokenId;
+
+	@Column(nullable = false, updatable = false)
+	private String username;
+
+	@Column(name = "expires_at", nullable = false, updatable = false)
+	private long expiresAt;
+
+	public RevokedToken() {
+	}
+
+	public RevokedToken(String tokenId, String username, long expiresAt) {
+		this.tokenId = tokenId;
+		this.username = username;
+		this.expiresAt = expiresAt;
+	}
+
+	public String getTokenId() {
+		return tokenId;
+	}
+
+	public void setTokenId(String tokenId) {
+		this.tokenId = tokenId;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public void setUsername(String username) {
+		this.username = username;
+	}
+
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+
+	public void setExpiresAt(long expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+}
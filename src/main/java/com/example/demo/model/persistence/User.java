@@ -1,25 +1,36 @@
 package com.example.demo.model.persistence;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.example.demo.service.UserEntityListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 
 @Entity
 @Table(name = "user")
+@EntityListeners(UserEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 public class User {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+	@SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
 	@JsonProperty
 	private long id;
 	
@@ -35,6 +46,11 @@ public class User {
     @JoinColumn(name = "cart_id", referencedColumnName = "id")
 	@JsonIgnore
     private Cart cart;
+
+	// Tokens issued at or before this epoch millisecond are revoked; null until the user logs out everywhere.
+	@Column(name = "tokens_revoked_before")
+	@JsonIgnore
+	private Long tokensRevokedBefore;
 	
 	public Cart getCart() {
 		return cart;
@@ -44,6 +60,14 @@ public class User {
 		this.cart = cart;
 	}
 
+	public Long getTokensRevokedBefore() {
+		return tokensRevokedBefore;
+	}
+
+	public void setTokensRevokedBefore(Long tokensRevokedBefore) {
+		this.tokensRevokedBefore = tokensRevokedBefore;
+	}
+
 	public long getId() {
 		return id;
 	}
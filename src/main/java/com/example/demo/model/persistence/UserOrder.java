@@ -1,37 +1,43 @@
 package com.example.demo.model.persistence;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
-import javax.persistence.JoinTable;
-import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.OrderBy;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
-@Table(name = "user_order")
+@Table(name = "user_order", indexes = @Index(name = "idx_user_order_user_created", columnList = "user_id, created_at"))
 public class UserOrder {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_order_seq")
+	@SequenceGenerator(name = "user_order_seq", sequenceName = "user_order_seq", allocationSize = 50)
 	@JsonProperty
 	@Column
 	private Long id;
 	
-	@ManyToMany(cascade = CascadeType.ALL)
+	@OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+	@OrderBy("id")
 	@JsonProperty
-	@Column
-    private List<Item> items;
+    private List<OrderItem> items;
 	
 	@ManyToOne
 	@JoinColumn(name="user_id", nullable = false, referencedColumnName = "id")
@@ -40,7 +46,13 @@ public class UserOrder {
 	
 	@JsonProperty
 	@Column
-	private BigDecimal total;
+	@Convert(converter = MoneyConverter.class)
+	private Money total;
+
+	@JsonProperty
+	@Column(name = "created_at", nullable = false)
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date createdAt;
 
 	public Long getId() {
 		return id;
@@ -50,11 +62,11 @@ public class UserOrder {
 		this.id = id;
 	}
 
-	public List<Item> getItems() {
+	public List<OrderItem> getItems() {
 		return items;
 	}
 
-	public void setItems(List<Item> items) {
+	public void setItems(List<OrderItem> items) {
 		this.items = items;
 	}
 
@@ -66,19 +78,32 @@ public class UserOrder {
 		this.user = user;
 	}
 	
-	public BigDecimal getTotal() {
+	public Money getTotal() {
 		return total;
 	}
 
-	public void setTotal(BigDecimal total) {
+	public void setTotal(Money total) {
 		this.total = total;
 	}
 
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Date createdAt) {
+		this.createdAt = createdAt;
+	}
+
 	public static UserOrder createFromCart(Cart cart) {
 		UserOrder order = new UserOrder();
-		order.setItems(cart.getItems().stream().collect(Collectors.toList()));
+		List<OrderItem> items = new ArrayList<>();
+		for (CartItem line : cart.getItems()) {
+			items.add(new OrderItem(order, line));
+		}
+		order.setItems(items);
 		order.setTotal(cart.getTotal());
 		order.setUser(cart.getUser());
+		order.setCreatedAt(new Date());
 		return order;
 	}
 	
@@ -1,10 +1,15 @@
 package com.example.demo.model.persistence.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.demo.model.persistence.Cart;
 import com.example.demo.model.persistence.User;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
 	Cart findByUser(User user);
+
+	@Query("select c.version from Cart c where c.id = :id")
+	Long findVersionById(@Param("id") long id);
 }
@@ -2,11 +2,41 @@ package com.example.demo.model.persistence.repositories;
 
 import java.util.List;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.Money;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+	@QueryHints({
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = "item-by-name")})
 	public List<Item> findByName(String name);
 
+	public List<Item> findAllBy(Pageable pageable);
+
+	@Query("select i from Item i where i.id > :id order by i.id asc")
+	public List<Item> findPageByIdAsc(@Param("id") Long id, Pageable pageable);
+
+	@Query("select i from Item i where i.id < :id order by i.id desc")
+	public List<Item> findPageByIdDesc(@Param("id") Long id, Pageable pageable);
+
+	@Query("select i from Item i where i.name > :name or (i.name = :name and i.id > :id) order by i.name asc, i.id asc")
+	public List<Item> findPageByNameAsc(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+	@Query("select i from Item i where i.name < :name or (i.name = :name and i.id < :id) order by i.name desc, i.id desc")
+	public List<Item> findPageByNameDesc(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+	@Query("select i from Item i where i.price > :price or (i.price = :price and i.id > :id) order by i.price asc, i.id asc")
+	public List<Item> findPageByPriceAsc(@Param("price") Money price, @Param("id") Long id, Pageable pageable);
+
+	@Query("select i from Item i where i.price < :price or (i.price = :price and i.id < :id) order by i.price desc, i.id desc")
+	public List<Item> findPageByPriceDesc(@Param("price") Money price, @Param("id") Long id, Pageable pageable);
+
 }
@@ -1,12 +1,31 @@
 package com.example.demo.model.persistence.repositories;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.example.demo.model.persistence.User;
 import com.example.demo.model.persistence.UserOrder;
 
 public interface OrderRepository extends JpaRepository<UserOrder, Long> {
 	List<UserOrder> findByUser(User user);
+
+	@Query("select o.id from UserOrder o where o.user.id = :userId and o.createdAt >= :from and o.createdAt < :to"
+			+ " order by o.createdAt desc, o.id desc")
+	List<Long> findIdsByUserId(@Param("userId") long userId, @Param("from") Date from, @Param("to") Date to,
+			Pageable pageable);
+
+	// distinct only de-duplicates the fetched orders; the joined line rows are already distinct
+	@Query("select distinct o from UserOrder o left join fetch o.items where o.id in :ids"
+			+ " order by o.createdAt desc, o.id desc")
+	@QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+	List<UserOrder> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 }
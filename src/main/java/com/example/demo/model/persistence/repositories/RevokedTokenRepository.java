@@ -0,0 +1,20 @@
+package com.example.demo.model.persistence.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.model.persistence.RevokedToken;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+	List<RevokedToken> findByExpiresAtGreaterThan(long now);
+
+	@Modifying
+	@Transactional
+	@Query("delete from RevokedToken t where t.expiresAt <= :now")
+	int deleteExpired(@Param("now") long now);
+}
@@ -1,9 +1,13 @@
 package com.example.demo.model.persistence.repositories;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.example.demo.model.persistence.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 	User findByUsername(String username);
+
+	List<User> findByTokensRevokedBeforeGreaterThan(long since);
 }
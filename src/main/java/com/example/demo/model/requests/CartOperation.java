@@ -0,0 +1,44 @@
+package com.example.demo.model.requests;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class CartOperation {
+
+	public enum Action {
+		ADD, REMOVE, SET
+	}
+
+	@JsonProperty
+	private Action action;
+
+	@JsonProperty
+	private long itemId;
+
+	@JsonProperty
+	private int quantity;
+
+	public Action getAction() {
+		return action;
+	}
+
+	public void setAction(Action action) {
+		this.action = action;
+	}
+
+	public long getItemId() {
+		return itemId;
+	}
+
+	public void setItemId(long itemId) {
+		this.itemId = itemId;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public void setQuantity(int quantity) {
+		this.quantity = quantity;
+	}
+
+}
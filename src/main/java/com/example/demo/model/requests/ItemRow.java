@@ -0,0 +1,56 @@
+package com.example.demo.model.requests;
+
+import com.example.demo.model.persistence.Money;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One row of a bulk catalog feed: name, price and description for an import, id and price for a
+ * price update.
+ */
+public class ItemRow {
+
+	@JsonProperty
+	private Long id;
+
+	@JsonProperty
+	private String name;
+
+	@JsonProperty
+	private Money price;
+
+	@JsonProperty
+	private String description;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Money getPrice() {
+		return price;
+	}
+
+	public void setPrice(Money price) {
+		this.price = price;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+}
@@ -0,0 +1,133 @@
+package com.example.demo.model.responses;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.CartItem;
+import com.example.demo.model.persistence.Money;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A cart as one line per item with its quantity, without item descriptions or the owning user. A
+ * delta carries only the lines the request changed; a line with quantity 0 was removed. Clients
+ * apply a delta to the copy they hold and can drop any response older than the version they have.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CartView {
+
+	public enum Mode {
+		FULL, COMPACT, DELTA
+	}
+
+	@JsonProperty
+	private Long id;
+
+	@JsonProperty
+	private long version;
+
+	@JsonProperty
+	private Money total;
+
+	@JsonProperty
+	private boolean delta;
+
+	@JsonProperty
+	private List<Line> lines;
+
+	public CartView() {
+	}
+
+	public static CartView of(Cart cart, Mode mode) {
+		CartView view = new CartView();
+		view.id = cart.getId();
+		view.version = cart.getVersion();
+		view.total = cart.getTotal();
+		view.delta = mode == Mode.DELTA;
+		if(view.delta) {
+			view.lines = new ArrayList<>(cart.getChangedItemIds().size());
+			for (Long itemId : cart.getChangedItemIds()) {
+				CartItem line = cart.getLine(itemId);
+				view.lines.add(line == null ? new Line(itemId, null, null, 0) : Line.of(line));
+			}
+		} else {
+			Collection<CartItem> items = cart.getItems();
+			view.lines = new ArrayList<>(items.size());
+			for (CartItem line : items) {
+				view.lines.add(Line.of(line));
+			}
+		}
+		return view;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public Money getTotal() {
+		return total;
+	}
+
+	public boolean isDelta() {
+		return delta;
+	}
+
+	public List<Line> getLines() {
+		return lines;
+	}
+
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public static class Line {
+
+		@JsonProperty
+		private Long itemId;
+
+		@JsonProperty
+		private String name;
+
+		@JsonProperty
+		private Money unitPrice;
+
+		@JsonProperty
+		private int quantity;
+
+		public Line() {
+		}
+
+		public Line(Long itemId, String name, Money unitPrice, int quantity) {
+			this.itemId = itemId;
+			this.name = name;
+			this.unitPrice = unitPrice;
+			this.quantity = quantity;
+		}
+
+		static Line of(CartItem line) {
+			return new Line(line.getItemId(), line.getItem() == null ? null : line.getItem().getName(),
+					line.getUnitPrice(), line.getQuantity());
+		}
+
+		public Long getItemId() {
+			return itemId;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Money getUnitPrice() {
+			return unitPrice;
+		}
+
+		public int getQuantity() {
+			return quantity;
+		}
+
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.example.demo.model.responses;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class ImportError {
+
+	@JsonProperty
+	private int chunk;
+
+	@JsonProperty
+	private long line;
+
+	@JsonProperty
+	private String message;
+
+	public ImportError() {
+	}
+
+	public ImportError(int chunk, long line, String message) {
+		this.chunk = chunk;
+		this.line = line;
+		this.message = message;
+	}
+
+	public int getChunk() {
+		return chunk;
+	}
+
+	public void setChunk(int chunk) {
+		this.chunk = chunk;
+	}
+
+	public long getLine() {
+		return line;
+	}
+
+	public void setLine(long line) {
+		this.line = line;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+}
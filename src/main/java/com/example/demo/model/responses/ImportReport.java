@@ -0,0 +1,89 @@
+package com.example.demo.model.responses;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Outcome of a bulk catalog feed. Only the first {@link #MAX_REPORTED_ERRORS} errors are listed;
+ * {@code errorCount} covers all of them.
+ */
+public class ImportReport {
+
+	public static final int MAX_REPORTED_ERRORS = 100;
+
+	@JsonProperty
+	private long rowsRead;
+
+	@JsonProperty
+	private long rowsWritten;
+
+	@JsonProperty
+	private int chunksCommitted;
+
+	@JsonProperty
+	private int chunksFailed;
+
+	@JsonProperty
+	private long errorCount;
+
+	@JsonProperty
+	private List<ImportError> errors = new ArrayList<>();
+
+	public void addError(ImportError error) {
+		errorCount++;
+		if(errors.size() < MAX_REPORTED_ERRORS) {
+			errors.add(error);
+		}
+	}
+
+	public long getRowsRead() {
+		return rowsRead;
+	}
+
+	public void setRowsRead(long rowsRead) {
+		this.rowsRead = rowsRead;
+	}
+
+	public long getRowsWritten() {
+		return rowsWritten;
+	}
+
+	public void setRowsWritten(long rowsWritten) {
+		this.rowsWritten = rowsWritten;
+	}
+
+	public int getChunksCommitted() {
+		return chunksCommitted;
+	}
+
+	public void setChunksCommitted(int chunksCommitted) {
+		this.chunksCommitted = chunksCommitted;
+	}
+
+	public int getChunksFailed() {
+		return chunksFailed;
+	}
+
+	public void setChunksFailed(int chunksFailed) {
+		this.chunksFailed = chunksFailed;
+	}
+
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	public void setErrorCount(long errorCount) {
+		this.errorCount = errorCount;
+	}
+
+	public List<ImportError> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(List<ImportError> errors) {
+		this.errors = errors;
+	}
+
+}
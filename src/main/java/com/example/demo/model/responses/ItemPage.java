@@ -0,0 +1,40 @@
+package com.example.demo.model.responses;
+
+import java.util.List;
+
+import com.example.demo.model.persistence.Item;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class ItemPage {
+
+	@JsonProperty
+	private List<Item> items;
+
+	@JsonProperty
+	private String nextCursor;
+
+	public ItemPage() {
+	}
+
+	public ItemPage(List<Item> items, String nextCursor) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<Item> getItems() {
+		return items;
+	}
+
+	public void setItems(List<Item> items) {
+		this.items = items;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.example.demo.model.responses;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class OrderStatus {
+
+	public enum State {
+		QUEUED, PERSISTED, FAILED
+	}
+
+	@JsonProperty
+	private String reference;
+
+	@JsonProperty
+	private State state;
+
+	@JsonProperty
+	private Long orderId;
+
+	public OrderStatus() {
+	}
+
+	public OrderStatus(String reference, State state, Long orderId) {
+		this.reference = reference;
+		this.state = state;
+		this.orderId = orderId;
+	}
+
+	public String getReference() {
+		return reference;
+	}
+
+	public void setReference(String reference) {
+		this.reference = reference;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	public void setState(State state) {
+		this.state = state;
+	}
+
+	public Long getOrderId() {
+		return orderId;
+	}
+
+	public void setOrderId(Long orderId) {
+		this.orderId = orderId;
+	}
+
+}
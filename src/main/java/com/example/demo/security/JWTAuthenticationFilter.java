@@ -3,19 +3,26 @@ package com.example.demo.security;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.UUID;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
 import com.example.demo.model.persistence.User;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -23,15 +30,23 @@ import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
 
 public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
+    private static final Algorithm ALGORITHM = HMAC512(SecurityConstants.SECRET.getBytes());
+
+    private static final String LOGIN_SAMPLE = JWTAuthenticationFilter.class.getName() + ".LOGIN_SAMPLE";
+
     private AuthenticationManager authenticationManager;
 
-    public JWTAuthenticationFilter(AuthenticationManager authenticationManager) {
+    private final MeterRegistry meterRegistry;
+
+    public JWTAuthenticationFilter(AuthenticationManager authenticationManager, MeterRegistry meterRegistry) {
         this.authenticationManager = authenticationManager;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
     public Authentication attemptAuthentication(HttpServletRequest req,
                                                 HttpServletResponse res) throws AuthenticationException {
+        req.setAttribute(LOGIN_SAMPLE, Timer.start(meterRegistry));
         try {
             User credentials = new ObjectMapper()
                     .readValue(req.getInputStream(), User.class);
@@ -41,6 +56,11 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
                             credentials.getUsername(),
                             credentials.getPassword(),
                             new ArrayList<>()));
+        } catch (PasswordHashingUnavailableException e) {
+            recordLogin(req, "unavailable");
+            res.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            res.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return null;
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -52,10 +72,36 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
                                             FilterChain chain,
                                             Authentication auth) throws IOException, ServletException {
 
+        long now = System.currentTimeMillis();
+        // The id lets a single token be revoked; the issue time lets all of a user's earlier ones be.
         String token = JWT.create()
                 .withSubject(((org.springframework.security.core.userdetails.User) auth.getPrincipal()).getUsername())
-                .withExpiresAt(new Date(System.currentTimeMillis() + SecurityConstants.EXPIRATION_TIME))
-                .sign(HMAC512(SecurityConstants.SECRET.getBytes()));
+                .withJWTId(UUID.randomUUID().toString())
+                .withIssuedAt(new Date(now))
+                .withClaim(SecurityConstants.ISSUED_AT_MILLIS_CLAIM, now)
+                .withExpiresAt(new Date(now + SecurityConstants.EXPIRATION_TIME))
+                .sign(ALGORITHM);
         res.addHeader(SecurityConstants.HEADER_STRING, SecurityConstants.TOKEN_PREFIX + token);
+        recordLogin(req, "success");
+    }
+
+    @Override
+    protected void unsuccessfulAuthentication(HttpServletRequest req,
+                                              HttpServletResponse res,
+                                              AuthenticationException failed) throws IOException, ServletException {
+        recordLogin(req, "failure");
+        super.unsuccessfulAuthentication(req, res, failed);
+    }
+
+    private void recordLogin(HttpServletRequest req, String outcome) {
+        Timer.Sample sample = (Timer.Sample) req.getAttribute(LOGIN_SAMPLE);
+        if (sample != null) {
+            req.removeAttribute(LOGIN_SAMPLE);
+            sample.stop(Timer.builder("security.login")
+                    .description("Time to check credentials and issue a token")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
     }
 }
\ No newline at end of file
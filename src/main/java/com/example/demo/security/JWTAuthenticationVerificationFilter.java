@@ -2,6 +2,9 @@ package com.example.demo.security;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -10,19 +13,57 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
-import org.springframework.stereotype.Component;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
 
-@Component
 public class JWTAuthenticationVerificationFilter extends BasicAuthenticationFilter {
 
-    public JWTAuthenticationVerificationFilter(AuthenticationManager authManager) {
+    private static final JWTVerifier VERIFIER = JWT.require(HMAC512(SecurityConstants.SECRET.getBytes())).build();
+
+    private static final VerifiedTokenCache VERIFIED_TOKENS =
+            new VerifiedTokenCache(SecurityConstants.VERIFIED_TOKEN_CACHE_SIZE);
+
+    private final Set<String> adminUsernames;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    private final Counter cached;
+    private final Counter verified;
+    private final Counter expired;
+    private final Counter invalid;
+    private final Counter revoked;
+
+    public JWTAuthenticationVerificationFilter(AuthenticationManager authManager, Set<String> adminUsernames,
+                                               TokenRevocationService tokenRevocationService,
+                                               MeterRegistry meterRegistry) {
         super(authManager);
+        this.adminUsernames = adminUsernames;
+        this.tokenRevocationService = tokenRevocationService;
+        this.cached = verifications(meterRegistry, "cached");
+        this.verified = verifications(meterRegistry, "verified");
+        this.expired = verifications(meterRegistry, "expired");
+        this.invalid = verifications(meterRegistry, "invalid");
+        this.revoked = verifications(meterRegistry, "revoked");
+    }
+
+    private static Counter verifications(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("security.jwt.verifications")
+                .description("Bearer tokens checked, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @Override
@@ -44,15 +85,61 @@ public class JWTAuthenticationVerificationFilter extends BasicAuthenticationFilt
     private UsernamePasswordAuthenticationToken getAuthentication(HttpServletRequest req) {
         String token = req.getHeader(SecurityConstants.HEADER_STRING);
         if (token != null) {
-            String user = JWT.require(HMAC512(SecurityConstants.SECRET.getBytes())).build()
-                    .verify(token.replace(SecurityConstants.TOKEN_PREFIX, ""))
-                    .getSubject();
+            VerifiedTokenCache.Entry entry = verify(token.replace(SecurityConstants.TOKEN_PREFIX, ""));
+            String user = entry.getSubject();
             if (user != null) {
-                return new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>());
+                if (tokenRevocationService.isRevoked(user, entry.getTokenId(), entry.getIssuedAt())) {
+                    revoked.increment();
+                    return null;
+                }
+                // Roles come from configuration rather than the token, so a changed admin list applies to
+                // tokens already issued, but only after a restart: the list is read once at startup.
+                List<GrantedAuthority> authorities = adminUsernames.contains(user)
+                        ? Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + SecurityConstants.ADMIN_ROLE))
+                        : new ArrayList<>();
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(user, null, authorities);
+                // Lets logout revoke the very token the request came with.
+                authentication.setDetails(entry);
+                return authentication;
             }
             return null;
         }
         return null;
     }
 
+    private VerifiedTokenCache.Entry verify(String token) {
+        long now = System.currentTimeMillis();
+        VerifiedTokenCache.Entry entry = VERIFIED_TOKENS.get(token, now);
+        if (entry != null) {
+            cached.increment();
+            return entry;
+        }
+        DecodedJWT jwt;
+        try {
+            jwt = VERIFIER.verify(token);
+        } catch (TokenExpiredException e) {
+            expired.increment();
+            throw e;
+        } catch (JWTVerificationException e) {
+            invalid.increment();
+            throw e;
+        }
+        verified.increment();
+        entry = new VerifiedTokenCache.Entry(jwt.getSubject(), jwt.getId(), issuedAtMillis(jwt),
+                jwt.getExpiresAt() == null ? now + SecurityConstants.EXPIRATION_TIME : jwt.getExpiresAt().getTime());
+        if (jwt.getSubject() != null && jwt.getExpiresAt() != null) {
+            VERIFIED_TOKENS.put(token, entry, now);
+        }
+        return entry;
+    }
+
+    private static long issuedAtMillis(DecodedJWT jwt) {
+        Long millis = jwt.getClaim(SecurityConstants.ISSUED_AT_MILLIS_CLAIM).asLong();
+        if (millis != null) {
+            return millis;
+        }
+        return jwt.getIssuedAt() == null ? 0 : jwt.getIssuedAt().getTime();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.example.demo.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * BCrypt encoder that runs every hash on a fixed-size worker pool with a bounded queue, so a burst of
+ * logins or sign-ups can occupy at most {@code poolSize + queueCapacity} request threads. Work beyond
+ * that is rejected immediately with {@link PasswordHashingUnavailableException}.
+ */
+public class PooledBCryptPasswordEncoder extends BCryptPasswordEncoder implements MeterBinder, DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public PooledBCryptPasswordEncoder(int strength, int poolSize, int queueCapacity) {
+        super(strength);
+        BlockingQueue<Runnable> queue = queueCapacity > 0
+                ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue, r -> {
+            Thread thread = new Thread(r, "bcrypt-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> super.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> super.matches(rawPassword, encodedPassword));
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private <T> T run(Callable<T> hash) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return hash.call();
+                } finally {
+                    hashNanos.add(System.nanoTime() - start);
+                    hashCount.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingUnavailableException("Password hashing capacity exhausted", e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bcrypt.queue.depth", this, PooledBCryptPasswordEncoder::getQueueDepth)
+                .description("Password hashes waiting for a BCrypt worker")
+                .register(registry);
+        Gauge.builder("bcrypt.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("BCrypt workers currently hashing")
+                .register(registry);
+        FunctionCounter.builder("bcrypt.rejected", this, PooledBCryptPasswordEncoder::getRejectedCount)
+                .description("Password hashes rejected because the BCrypt queue was full")
+                .register(registry);
+        FunctionTimer.builder("bcrypt.hash", this, e -> e.hashCount.sum(), e -> e.hashNanos.sum(),
+                TimeUnit.NANOSECONDS)
+                .description("Time spent computing BCrypt hashes")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
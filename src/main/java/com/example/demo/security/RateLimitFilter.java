@@ -0,0 +1,159 @@
+package com.example.demo.security;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Applies the budget of the first route matching a request to the request's key and answers
+ * {@code 429 Too Many Requests} with a {@code Retry-After} once that key's budget is spent. Requests
+ * without a key or matching no route pass untouched. The two concrete filters are separate classes
+ * because Spring Security orders filters by class.
+ */
+public abstract class RateLimitFilter extends OncePerRequestFilter {
+
+    private final List<Limit> limits = new ArrayList<>();
+
+    protected RateLimitFilter(String scope, List<Route> routes, int maxKeys, MeterRegistry meterRegistry) {
+        for (Route route : routes) {
+            String name = (route.getMethod() == null ? "" : route.getMethod() + " ") + route.getPath();
+            limits.add(new Limit(new AntPathRequestMatcher(route.getPath(), route.getMethod()),
+                    new RateLimiter(route.getPerSecond(), route.getBurst(), maxKeys),
+                    Counter.builder("security.rate.limited")
+                            .description("Requests refused for exceeding their rate limit")
+                            .tag("scope", scope)
+                            .tag("route", name)
+                            .register(meterRegistry)));
+        }
+    }
+
+    protected abstract String key(HttpServletRequest request);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        String key = key(req);
+        if (key != null) {
+            for (Limit limit : limits) {
+                if (limit.matcher.matches(req)) {
+                    long wait = limit.limiter.acquire(key, System.nanoTime());
+                    if (wait > 0) {
+                        limit.refused.increment();
+                        res.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                        // Whole seconds, rounded up so a client that honours it is let through.
+                        long seconds = TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1);
+                        res.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+                        return;
+                    }
+                    break;
+                }
+            }
+        }
+        chain.doFilter(req, res);
+    }
+
+    /**
+     * Limits by client address, ahead of login so failed password guesses are counted too. Behind a
+     * proxy, enable {@code server.use-forward-headers} so this sees the client rather than the proxy.
+     */
+    public static class ByIp extends RateLimitFilter {
+
+        public ByIp(List<Route> routes, int maxKeys, MeterRegistry meterRegistry) {
+            super("ip", routes, maxKeys, meterRegistry);
+        }
+
+        @Override
+        protected String key(HttpServletRequest request) {
+            return request.getRemoteAddr();
+        }
+    }
+
+    /**
+     * Limits by the username of a verified token, so one account cannot crowd out the others.
+     */
+    public static class ByUser extends RateLimitFilter {
+
+        public ByUser(List<Route> routes, int maxKeys, MeterRegistry meterRegistry) {
+            super("user", routes, maxKeys, meterRegistry);
+        }
+
+        @Override
+        protected String key(HttpServletRequest request) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            return authentication == null || authentication instanceof AnonymousAuthenticationToken
+                    ? null : authentication.getName();
+        }
+    }
+
+    /**
+     * One budget, bound from {@code security.rate-limit.ip[n]} or {@code security.rate-limit.user[n]}.
+     */
+    public static class Route {
+        private String path;
+        private String method;
+        private double perSecond;
+        private int burst = 1;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public double getPerSecond() {
+            return perSecond;
+        }
+
+        public void setPerSecond(double perSecond) {
+            this.perSecond = perSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+
+    private static final class Limit {
+        private final RequestMatcher matcher;
+        private final RateLimiter limiter;
+        private final Counter refused;
+
+        Limit(RequestMatcher matcher, RateLimiter limiter, Counter refused) {
+            this.matcher = matcher;
+            this.limiter = limiter;
+            this.refused = refused;
+        }
+    }
+}
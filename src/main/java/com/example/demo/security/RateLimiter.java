@@ -0,0 +1,81 @@
+package com.example.demo.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.demo.util.BoundedMaps;
+
+/**
+ * Token bucket per key, kept as a single theoretical arrival time (GCRA): each request pushes the
+ * key's time one emission interval further, and is refused once that runs more than {@code burst}
+ * intervals ahead of now. The state is one {@link AtomicLong} per key updated by CAS, so no request
+ * ever waits on a lock. Keys whose bucket has refilled hold no information and are swept once the
+ * map reaches {@code maxKeys}; if it is still full of active keys, an arbitrary tenth is dropped and
+ * those clients start again with a full bucket.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxKeys;
+    private final Map<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public RateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        if (permitsPerSecond <= 0 || burst < 1 || maxKeys < 1) {
+            throw new IllegalArgumentException("Need a positive rate, burst and key limit");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * burst;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Takes a permit for {@code key} if one is available.
+     *
+     * @param now a {@link System#nanoTime()} reading
+     * @return 0 if the request may go ahead, otherwise the nanoseconds until it would be allowed
+     */
+    public long acquire(String key, long now) {
+        AtomicLong arrival = arrivals.get(key);
+        if (arrival == null) {
+            if (arrivals.size() >= maxKeys) {
+                sweep(now);
+            }
+            AtomicLong created = new AtomicLong(now);
+            arrival = arrivals.putIfAbsent(key, created);
+            if (arrival == null) {
+                arrival = created;
+            }
+        }
+        for (;;) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return arrivals.size();
+    }
+
+    private void sweep(long now) {
+        // One thread sweeps; the others go ahead and may overshoot the bound by a few keys meanwhile.
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            BoundedMaps.makeRoom(arrivals, maxKeys, arrival -> arrival.get() <= now);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
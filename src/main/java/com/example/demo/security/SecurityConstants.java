@@ -6,4 +6,9 @@ public class SecurityConstants {
     public static final String TOKEN_PREFIX = "Bearer ";
     public static final String HEADER_STRING = "Authorization";
     public static final String SIGN_UP_URL = "/api/user/create";
+    public static final String ADMIN_URLS = "/api/admin/**";
+    public static final String ADMIN_ROLE = "ADMIN";
+    public static final int VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+    // Issue time in epoch milliseconds; iat only has whole seconds, too coarse for a revocation cutoff.
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.example.demo.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the revoked tokens. A token is revoked if its id was revoked on its own, or if
+ * it was issued no later than its user's last "log out everywhere". Ids are checked against a Bloom
+ * filter first, so a token that was never revoked is normally cleared without touching the exact
+ * set. Reads take no locks; the rare writes are serialized so a rebuilt filter never misses an id.
+ */
+public class TokenRevocationList {
+
+    private final int expectedTokens;
+    private final double falsePositiveRate;
+
+    // Token id to the token's own expiry; once that has passed the token is rejected anyway.
+    private final Map<String, Long> revokedIds = new ConcurrentHashMap<>();
+    private final Map<String, Long> userCutoffs = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    public TokenRevocationList(int expectedTokens, double falsePositiveRate) {
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedTokens, falsePositiveRate);
+    }
+
+    /**
+     * @param issuedAt the token's issue time in epoch milliseconds
+     */
+    public boolean isRevoked(String username, String tokenId, long issuedAt) {
+        Long cutoff = userCutoffs.get(username);
+        if (cutoff != null && issuedAt <= cutoff) {
+            return true;
+        }
+        return tokenId != null && filter.mightContain(tokenId) && revokedIds.containsKey(tokenId);
+    }
+
+    public synchronized void revoke(String tokenId, long expiresAt) {
+        revokedIds.put(tokenId, expiresAt);
+        filter.put(tokenId);
+    }
+
+    /**
+     * Revokes every token of {@code username} issued at or before {@code cutoff}, in epoch milliseconds.
+     */
+    public synchronized void revokeAll(String username, long cutoff) {
+        userCutoffs.merge(username, cutoff, Math::max);
+    }
+
+    /**
+     * Forgets revocations that no longer matter because the tokens they cover have expired, and
+     * rebuilds the filter from the ids that are left.
+     *
+     * @param now epoch milliseconds
+     * @param maxTokenAgeMillis how long after issue a token expires
+     */
+    public synchronized void purge(long now, long maxTokenAgeMillis) {
+        revokedIds.values().removeIf(expiresAt -> expiresAt <= now);
+        userCutoffs.values().removeIf(cutoff -> cutoff + maxTokenAgeMillis <= now);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revokedIds.size() * 2), falsePositiveRate);
+        revokedIds.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+
+    public int size() {
+        return revokedIds.size();
+    }
+
+    public int userCount() {
+        return userCutoffs.size();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.security;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.model.persistence.RevokedToken;
+import com.example.demo.model.persistence.User;
+import com.example.demo.model.persistence.repositories.RevokedTokenRepository;
+import com.example.demo.model.persistence.repositories.UserRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Persists token revocations and answers revocation checks from memory. The deny-list in the
+ * database is the source of truth; it is loaded at startup and re-read every
+ * {@code security.revocation.refresh-seconds} so revocations made on other instances take effect
+ * there too. Revocations made here take effect here at once.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService implements MeterBinder {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final TokenRevocationList revocations;
+    private final long refreshSeconds;
+    private final ScheduledExecutorService refresher;
+
+    public TokenRevocationService(@Value("${security.revocation.expected-tokens:100000}") int expectedTokens,
+                                  @Value("${security.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${security.revocation.refresh-seconds:30}") long refreshSeconds) {
+        this.revocations = new TokenRevocationList(expectedTokens, falsePositiveRate);
+        this.refreshSeconds = refreshSeconds;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "token-revocation-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        refresh();
+        if (refreshSeconds > 0) {
+            refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * @param issuedAt the token's issue time in epoch milliseconds, 0 if it has none
+     */
+    public boolean isRevoked(String username, String tokenId, long issuedAt) {
+        return revocations.isRevoked(username, tokenId, issuedAt);
+    }
+
+    public void revoke(String tokenId, String username, long expiresAt) {
+        revokedTokenRepository.save(new RevokedToken(tokenId, username, expiresAt));
+        revocations.revoke(tokenId, expiresAt);
+    }
+
+    /**
+     * Revokes every token issued to {@code username} so far. Returns false if there is no such user.
+     * Does not return before the clock has passed the cutoff, so a token issued after this call, such
+     * as on an immediate re-login, is never caught by it.
+     */
+    public boolean revokeAll(String username) {
+        User user = userRepository.findByUsername(username);
+        if (user == null) {
+            return false;
+        }
+        long cutoff = System.currentTimeMillis();
+        if (user.getTokensRevokedBefore() == null || user.getTokensRevokedBefore() < cutoff) {
+            user.setTokensRevokedBefore(cutoff);
+            userRepository.save(user);
+        }
+        revocations.revokeAll(username, cutoff);
+        while (System.currentTimeMillis() <= cutoff) {
+            Thread.yield();
+        }
+        return true;
+    }
+
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        revokedTokenRepository.deleteExpired(now);
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtGreaterThan(now)) {
+            revocations.revoke(token.getTokenId(), token.getExpiresAt());
+        }
+        long since = now - SecurityConstants.EXPIRATION_TIME;
+        for (User user : userRepository.findByTokensRevokedBeforeGreaterThan(since)) {
+            revocations.revokeAll(user.getUsername(), user.getTokensRevokedBefore());
+        }
+        revocations.purge(now, SecurityConstants.EXPIRATION_TIME);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // Keep the last known list; the next run tries again.
+            log.error("Unable to refresh revoked tokens", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("security.revocation.tokens", revocations, TokenRevocationList::size)
+                .description("Individually revoked tokens not yet expired")
+                .register(registry);
+        Gauge.builder("security.revocation.users", revocations, TokenRevocationList::userCount)
+                .description("Users whose earlier tokens are all revoked")
+                .register(registry);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.demo.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.example.demo.util.BoundedMaps;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified, keyed by the SHA-256 of the
+ * token and held until the token's own expiry. Entries keep the claims a revocation check needs, as
+ * a verified token may still be revoked later.
+ */
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final int maxEntries;
+    private final Map<ByteBuffer, Entry> entries = new ConcurrentHashMap<>();
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Entry get(String token, long now) {
+        ByteBuffer key = key(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.getExpiresAt() <= now) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    public void put(String token, Entry entry, long now) {
+        put(token, entry.getSubject(), entry.getTokenId(), entry.getIssuedAt(), entry.getExpiresAt(), now);
+    }
+
+    public void put(String token, String subject, String tokenId, long issuedAt, long expiresAt, long now) {
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            BoundedMaps.makeRoom(entries, maxEntries, entry -> entry.getExpiresAt() <= now);
+        }
+        entries.put(key(token), new Entry(subject, tokenId, issuedAt, expiresAt));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static ByteBuffer key(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static final class Entry {
+        private final String subject;
+        private final String tokenId;
+        private final long issuedAt;
+        private final long expiresAt;
+
+        Entry(String subject, String tokenId, long issuedAt, long expiresAt) {
+            this.subject = subject;
+            this.tokenId = tokenId;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        /**
+         * The {@code jti} claim, or null for tokens issued before tokens carried one.
+         */
+        public String getTokenId() {
+            return tokenId;
+        }
+
+        /**
+         * When the token was issued, in epoch milliseconds, or 0 if it does not say.
+         */
+        public long getIssuedAt() {
+            return issuedAt;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
@@ -1,6 +1,16 @@
 package com.example.demo.security;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,6 +21,10 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @EnableWebSecurity
 public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
@@ -18,24 +32,52 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
 
     private UserDetailsServiceImpl userDetailsService;
     private BCryptPasswordEncoder bCryptPasswordEncoder;
+    private Set<String> adminUsernames;
+    private TokenRevocationService tokenRevocationService;
+    private MeterRegistry meterRegistry;
+    private Environment environment;
 
     public WebSecurityConfiguration(UserDetailsServiceImpl userDetailsService,
-                                    BCryptPasswordEncoder bCryptPasswordEncoder) {
+                                    BCryptPasswordEncoder bCryptPasswordEncoder,
+                                    @Value("${security.admin-usernames:}") String[] adminUsernames,
+                                    TokenRevocationService tokenRevocationService,
+                                    MeterRegistry meterRegistry,
+                                    Environment environment) {
         this.userDetailsService = userDetailsService;
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        this.tokenRevocationService = tokenRevocationService;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.adminUsernames = Arrays.stream(adminUsernames).map(String::trim)
+                .filter(name -> !name.isEmpty()).collect(Collectors.toSet());
     }
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http.cors().and().csrf().disable().authorizeRequests()
                 .antMatchers(HttpMethod.POST, SecurityConstants.SIGN_UP_URL).permitAll()
+                .antMatchers(SecurityConstants.ADMIN_URLS).hasRole(SecurityConstants.ADMIN_ROLE)
                 .anyRequest().authenticated()
                 .and()
-                .addFilter(new JWTAuthenticationFilter(authenticationManager()))
-                .addFilter(new JWTAuthenticationVerificationFilter(authenticationManager()))
+                .addFilter(new JWTAuthenticationFilter(authenticationManager(), meterRegistry))
+                .addFilter(new JWTAuthenticationVerificationFilter(authenticationManager(), adminUsernames,
+                        tokenRevocationService, meterRegistry))
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
 
         http.exceptionHandling().authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED));
+
+        if (environment.getProperty("security.rate-limit.enabled", Boolean.class, true)) {
+            int maxKeys = environment.getProperty("security.rate-limit.max-keys", Integer.class, 100_000);
+            http.addFilterBefore(new RateLimitFilter.ByIp(routes("security.rate-limit.ip"), maxKeys, meterRegistry),
+                    UsernamePasswordAuthenticationFilter.class);
+            http.addFilterAfter(new RateLimitFilter.ByUser(routes("security.rate-limit.user"), maxKeys,
+                    meterRegistry), BasicAuthenticationFilter.class);
+        }
+    }
+
+    private List<RateLimitFilter.Route> routes(String prefix) {
+        return Binder.get(environment).bind(prefix, Bindable.listOf(RateLimitFilter.Route.class))
+                .orElse(Collections.emptyList());
     }
 
     @Override
@@ -0,0 +1,98 @@
+package com.example.demo.service;
+
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.repositories.CartRepository;
+
+/**
+ * Applies cart mutations without lost updates. Within this instance, mutations of the same cart are
+ * serialized on one of a fixed set of lock stripes, so different users never contend. Across
+ * instances, the cart and line versions turn a concurrent write into an optimistic locking failure
+ * and the mutation is re-applied to a fresh copy of the cart. Integrity violations are only retried
+ * when the cart's version shows another write got in first; otherwise they propagate unchanged. The returned cart's changed item ids
+ * are those of the mutation that committed.
+ */
+@Component
+public class CartService {
+
+	static final int MAX_ATTEMPTS = 5;
+
+	private static final int STRIPES = 1024;
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final Lock[] locks = new Lock[STRIPES];
+
+	public CartService(PlatformTransactionManager transactionManager) {
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Loads the cart, applies {@code mutation} and commits, retrying on a conflicting concurrent write.
+	 * The mutation may therefore run more than once and must depend only on the cart it is given.
+	 */
+	public Optional<Cart> modify(long cartId, Consumer<Cart> mutation) {
+		Lock lock = locks[stripe(cartId)];
+		lock.lock();
+		try {
+			for (int attempt = 1; ; attempt++) {
+				long[] loadedVersion = {-1};
+				RuntimeException conflict;
+				try {
+					return transactionTemplate.execute(status -> cartRepository.findById(cartId).map(cart -> {
+						loadedVersion[0] = cart.getVersion();
+						cart.clearChanges();
+						mutation.accept(cart);
+						cartRepository.save(cart);
+						return cart;
+					}));
+				} catch (OptimisticLockingFailureException e) {
+					conflict = e;
+				} catch (DataIntegrityViolationException e) {
+					// A line another instance inserted first clashes on the unique index before the cart's
+					// version is checked. Anything else, or a cart nobody else changed, is a real error.
+					if(!changedSince(cartId, loadedVersion[0])) {
+						throw e;
+					}
+					conflict = e;
+				}
+				if(attempt == MAX_ATTEMPTS) {
+					throw new OptimisticLockingFailureException("Cart " + cartId + " kept changing concurrently", conflict);
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private boolean changedSince(long cartId, long loadedVersion) {
+		if(loadedVersion < 0) {
+			return false;
+		}
+		Long version = transactionTemplate.execute(status -> cartRepository.findVersionById(cartId));
+		return version != null && version != loadedVersion;
+	}
+
+	private static int stripe(long cartId) {
+		int h = Long.hashCode(cartId);
+		return (h ^ (h >>> 16)) & (STRIPES - 1);
+	}
+
+}
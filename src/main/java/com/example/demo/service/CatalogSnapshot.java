@@ -0,0 +1,87 @@
+package com.example.demo.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import com.example.demo.model.persistence.Item;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Immutable view of the whole item catalog together with its JSON encoding, plain and gzipped, so
+ * it can be written straight to the response.
+ */
+public final class CatalogSnapshot {
+
+	private final long version;
+
+	private final List<Item> items;
+
+	private final byte[] json;
+
+	private final byte[] gzippedJson;
+
+	private final String eTag;
+
+	private CatalogSnapshot(long version, List<Item> items, byte[] json, byte[] gzippedJson, String eTag) {
+		this.version = version;
+		this.items = items;
+		this.json = json;
+		this.gzippedJson = gzippedJson;
+		this.eTag = eTag;
+	}
+
+	public static CatalogSnapshot of(long version, List<Item> items, ObjectMapper objectMapper) throws IOException {
+		byte[] json = objectMapper.writeValueAsBytes(items);
+		ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4 + 64);
+		try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+			out.write(json);
+		}
+		return new CatalogSnapshot(version, Collections.unmodifiableList(new ArrayList<>(items)),
+				json, gzipped.toByteArray(), "\"" + digest(json) + "\"");
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public List<Item> getItems() {
+		return items;
+	}
+
+	public byte[] getJson() {
+		return json;
+	}
+
+	public byte[] getGzippedJson() {
+		return gzippedJson;
+	}
+
+	public String getETag() {
+		return eTag;
+	}
+
+	// The gzipped body is a different representation, so it needs its own strong validator.
+	public String getGzippedETag() {
+		return eTag.substring(0, eTag.length() - 1) + "-gzip\"";
+	}
+
+	private static String digest(byte[] json) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+			StringBuilder hex = new StringBuilder(32);
+			for (int i = 0; i < 16; i++) {
+				hex.append(String.format("%02x", hash[i]));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
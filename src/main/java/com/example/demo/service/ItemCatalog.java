@@ -0,0 +1,70 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Holds the current {@link CatalogSnapshot}. Item changes only bump a generation counter once their
+ * transaction commits; the next reader rebuilds the snapshot and swaps it in atomically.
+ */
+@Component
+public class ItemCatalog {
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final AtomicLong generation = new AtomicLong();
+
+	private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+
+	public CatalogSnapshot current() {
+		CatalogSnapshot current = snapshot.get();
+		if(current != null && current.getVersion() == generation.get()) {
+			return current;
+		}
+		return rebuild();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onItemChanged(ItemChangedEvent event) {
+		generation.incrementAndGet();
+	}
+
+	private synchronized CatalogSnapshot rebuild() {
+		long version = generation.get();
+		CatalogSnapshot current = snapshot.get();
+		if(current != null && current.getVersion() == version) {
+			return current;
+		}
+		try {
+			// A read-write transaction keeps this on the primary when a read replica is configured: the
+			// snapshot is served until the next item change, so it must not come from a lagging copy.
+			List<Item> items = new TransactionTemplate(transactionManager).execute(status -> itemRepository.findAll());
+			CatalogSnapshot next = CatalogSnapshot.of(version, items, objectMapper);
+			snapshot.set(next);
+			return next;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.example.demo.service;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.example.demo.model.persistence.Item;
+
+public class ItemChangedEvent extends ApplicationEvent {
+
+	private final Item item;
+
+	private final boolean removed;
+
+	private final Collection<Long> itemIds;
+
+	public ItemChangedEvent(Object source, Item item, boolean removed) {
+		super(source);
+		this.item = item;
+		this.removed = removed;
+		this.itemIds = Collections.singleton(item.getId());
+	}
+
+	/**
+	 * A bulk write that bypassed the entity manager; listeners have to reload these items.
+	 */
+	public ItemChangedEvent(Object source, Collection<Long> itemIds) {
+		super(source);
+		this.item = null;
+		this.removed = false;
+		this.itemIds = itemIds;
+	}
+
+	public Item getItem() {
+		return item;
+	}
+
+	public boolean isRemoved() {
+		return removed;
+	}
+
+	public boolean isBulk() {
+		return item == null;
+	}
+
+	public Collection<Long> getItemIds() {
+		return itemIds;
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.example.demo.service;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.model.persistence.Item;
+
+/**
+ * Publishes an {@link ItemChangedEvent} for every item write. Hibernate obtains this listener from the
+ * Spring context, so it can be injected like any other bean.
+ */
+@Component
+public class ItemEntityListener {
+
+	@Autowired
+	private ApplicationEventPublisher publisher;
+
+	@PostPersist
+	@PostUpdate
+	public void itemSaved(Item item) {
+		publisher.publishEvent(new ItemChangedEvent(this, item, false));
+	}
+
+	@PostRemove
+	public void itemRemoved(Item item) {
+		publisher.publishEvent(new ItemChangedEvent(this, item, true));
+	}
+
+}
@@ -0,0 +1,272 @@
+package com.example.demo.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.logging.LogEvents;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.Money;
+import com.example.demo.model.requests.ItemRow;
+import com.example.demo.model.responses.ImportError;
+import com.example.demo.model.responses.ImportReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Streams CSV or NDJSON item feeds into the catalog in constant memory. Rows are read one line at a
+ * time and written in chunks, each chunk in its own transaction: a chunk that fails is rolled back
+ * and reported, and the feed carries on with the next one. CSV feeds start with a header row naming
+ * their columns; quoted fields may contain commas and doubled quotes but not line breaks.
+ */
+@Slf4j
+@Component
+public class ItemImportService {
+
+	public enum Format {
+		CSV, NDJSON
+	}
+
+	private enum Mode {
+		CREATE, PRICE
+	}
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ApplicationEventPublisher publisher;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final ObjectReader rowReader = new ObjectMapper().readerFor(ItemRow.class);
+
+	private final int chunkSize;
+
+	public ItemImportService(PlatformTransactionManager transactionManager,
+			@Value("${catalog.import.chunk-size:1000}") int chunkSize) {
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Adds every row of the feed as a new item.
+	 */
+	public ImportReport importItems(BufferedReader feed, Format format) throws IOException {
+		return run(feed, format, Mode.CREATE);
+	}
+
+	/**
+	 * Sets the price of the item named by each row's id.
+	 */
+	public ImportReport updatePrices(BufferedReader feed, Format format) throws IOException {
+		return run(feed, format, Mode.PRICE);
+	}
+
+	private ImportReport run(BufferedReader feed, Format format, Mode mode) throws IOException {
+		ImportReport report = new ImportReport();
+		List<Row> chunk = new ArrayList<>(chunkSize);
+		String[] header = null;
+		long lineNumber = 0;
+		String line;
+		while ((line = feed.readLine()) != null) {
+			lineNumber++;
+			if(line.trim().isEmpty()) {
+				continue;
+			}
+			if(format == Format.CSV && header == null) {
+				header = parseCsvLine(line).toArray(new String[0]);
+				continue;
+			}
+			report.setRowsRead(report.getRowsRead() + 1);
+			try {
+				ItemRow row = format == Format.CSV ? toRow(header, parseCsvLine(line)) : rowReader.readValue(line);
+				validate(row, mode);
+				chunk.add(new Row(lineNumber, row));
+			} catch (IOException | IllegalArgumentException | ArithmeticException e) {
+				report.addError(new ImportError(report.getChunksCommitted() + report.getChunksFailed() + 1,
+						lineNumber, e.getMessage()));
+			}
+			if(chunk.size() == chunkSize) {
+				write(chunk, mode, report);
+				chunk.clear();
+			}
+		}
+		if(!chunk.isEmpty()) {
+			write(chunk, mode, report);
+		}
+		return report;
+	}
+
+	private void write(List<Row> chunk, Mode mode, ImportReport report) {
+		int number = report.getChunksCommitted() + report.getChunksFailed() + 1;
+		try {
+			int written = transactionTemplate.execute(status -> mode == Mode.CREATE
+					? insert(chunk) : reprice(chunk, number, report));
+			report.setChunksCommitted(report.getChunksCommitted() + 1);
+			report.setRowsWritten(report.getRowsWritten() + written);
+		} catch (RuntimeException e) {
+			log.error("Unable to write import chunk {}", LogEvents.chunk(number), LogEvents.event("item.import.chunk.failed"), e);
+			report.setChunksFailed(report.getChunksFailed() + 1);
+			report.addError(new ImportError(number, chunk.get(0).line, "Chunk of " + chunk.size()
+					+ " rows rolled back: " + e.getMessage()));
+		}
+	}
+
+	private int insert(List<Row> chunk) {
+		for (Row row : chunk) {
+			Item item = new Item();
+			item.setName(row.item.getName());
+			item.setPrice(row.item.getPrice());
+			item.setDescription(row.item.getDescription());
+			entityManager.persist(item);
+		}
+		// Send the batched inserts and let go of the entities so memory stays flat across chunks.
+		entityManager.flush();
+		entityManager.clear();
+		return chunk.size();
+	}
+
+	private int reprice(List<Row> chunk, int number, ImportReport report) {
+		int[][] counts = jdbcTemplate.batchUpdate("update item set price = ? where id = ?", chunk, chunk.size(),
+				(ps, row) -> {
+					ps.setBigDecimal(1, row.item.getPrice().toBigDecimal());
+					ps.setLong(2, row.item.getId());
+				});
+		int written = 0;
+		for (int i = 0; i < chunk.size(); i++) {
+			// Drivers may answer SUCCESS_NO_INFO (-2) for a batched row, which still counts as written.
+			if(counts[0][i] == 0) {
+				report.addError(new ImportError(number, chunk.get(i).line,
+						"No item with id " + chunk.get(i).item.getId()));
+			} else {
+				written++;
+			}
+		}
+		List<Long> ids = chunk.stream().map(row -> row.item.getId()).collect(Collectors.toList());
+		// The update bypasses Hibernate, so the cached items are dropped once it is visible. Registered
+		// before the event so the listeners reloading these items already miss the cache.
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCommit() {
+				Cache cache = entityManager.getEntityManagerFactory().getCache();
+				ids.forEach(id -> cache.evict(Item.class, id));
+			}
+		});
+		publisher.publishEvent(new ItemChangedEvent(this, ids));
+		return written;
+	}
+
+	private static void validate(ItemRow row, Mode mode) {
+		if(row.getPrice() == null) {
+			throw new IllegalArgumentException("Missing price");
+		}
+		if(row.getPrice().getCents() < 0) {
+			throw new IllegalArgumentException("Negative price " + row.getPrice());
+		}
+		if(mode == Mode.PRICE) {
+			if(row.getId() == null) {
+				throw new IllegalArgumentException("Missing id");
+			}
+			return;
+		}
+		if(row.getId() != null) {
+			throw new IllegalArgumentException("Item ids are assigned by the catalog");
+		}
+		if(isBlank(row.getName())) {
+			throw new IllegalArgumentException("Missing name");
+		}
+		if(isBlank(row.getDescription())) {
+			throw new IllegalArgumentException("Missing description");
+		}
+	}
+
+	private static ItemRow toRow(String[] header, List<String> fields) {
+		if(fields.size() != header.length) {
+			throw new IllegalArgumentException("Expected " + header.length + " fields but found " + fields.size());
+		}
+		Map<String, String> values = new HashMap<>();
+		for (int i = 0; i < header.length; i++) {
+			values.put(header[i].trim().toLowerCase(), fields.get(i));
+		}
+		ItemRow row = new ItemRow();
+		String id = values.get("id");
+		row.setId(isBlank(id) ? null : Long.valueOf(id.trim()));
+		row.setName(values.get("name"));
+		String price = values.get("price");
+		row.setPrice(isBlank(price) ? null : Money.of(new BigDecimal(price.trim())));
+		row.setDescription(values.get("description"));
+		return row;
+	}
+
+	static List<String> parseCsvLine(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if(quoted) {
+				if(c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if(c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if(c == '"') {
+				quoted = true;
+			} else if(c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		if(quoted) {
+			throw new IllegalArgumentException("Unterminated quoted field");
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	private static boolean isBlank(String value) {
+		return value == null || value.trim().isEmpty();
+	}
+
+	private static final class Row {
+
+		private final long line;
+
+		private final ItemRow item;
+
+		private Row(long line, ItemRow item) {
+			this.line = line;
+			this.item = item;
+		}
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.example.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.Money;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.model.responses.ItemPage;
+
+/**
+ * Keyset pagination over the item table. The continuation cursor carries the sort key and id of the
+ * last item returned, so every page is an index range scan rather than an OFFSET.
+ */
+@Component
+public class ItemPager {
+
+	public static final int MAX_PAGE_SIZE = 100;
+
+	public enum SortKey {
+		ID, NAME, PRICE
+	}
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	public ItemPage page(SortKey sort, Sort.Direction direction, int size, String cursor) {
+		if(size < 1 || size > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+		}
+		// Fetch one extra row to learn whether another page follows.
+		Pageable limit = PageRequest.of(0, size + 1);
+		List<Item> items = cursor == null
+				? itemRepository.findAllBy(PageRequest.of(0, size + 1, sortOf(sort, direction)))
+				: after(sort, direction, decode(sort, direction, cursor), limit);
+		if(items.size() <= size) {
+			return new ItemPage(items, null);
+		}
+		List<Item> page = items.subList(0, size);
+		return new ItemPage(page, encode(sort, direction, page.get(size - 1)));
+	}
+
+	private List<Item> after(SortKey sort, Sort.Direction direction, String[] position, Pageable limit) {
+		Long id = Long.valueOf(position[2]);
+		boolean asc = direction == Sort.Direction.ASC;
+		switch (sort) {
+			case NAME:
+				return asc ? itemRepository.findPageByNameAsc(position[3], id, limit)
+						: itemRepository.findPageByNameDesc(position[3], id, limit);
+			case PRICE:
+				Money price = Money.of(position[3]);
+				return asc ? itemRepository.findPageByPriceAsc(price, id, limit)
+						: itemRepository.findPageByPriceDesc(price, id, limit);
+			default:
+				return asc ? itemRepository.findPageByIdAsc(id, limit)
+						: itemRepository.findPageByIdDesc(id, limit);
+		}
+	}
+
+	private static Sort sortOf(SortKey sort, Sort.Direction direction) {
+		Sort byId = Sort.by(direction, "id");
+		return sort == SortKey.ID ? byId : Sort.by(direction, sort.name().toLowerCase()).and(byId);
+	}
+
+	private static String encode(SortKey sort, Sort.Direction direction, Item last) {
+		String value = sort == SortKey.NAME ? last.getName()
+				: sort == SortKey.PRICE ? last.getPrice().toString() : "";
+		String position = sort + ":" + direction + ":" + last.getId() + ":" + value;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String[] decode(SortKey sort, Sort.Direction direction, String cursor) {
+		String[] position;
+		try {
+			position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 4);
+			if(position.length == 4) {
+				Long.parseLong(position[2]);
+				if(sort == SortKey.PRICE) {
+					Money.of(position[3]);
+				}
+			}
+		} catch (IllegalArgumentException | ArithmeticException e) {
+			throw new IllegalArgumentException("Malformed cursor", e);
+		}
+		if(position.length != 4 || !position[0].equals(sort.name()) || !position[1].equals(direction.name())) {
+			throw new IllegalArgumentException("Cursor does not match the requested sort");
+		}
+		return position;
+	}
+
+}
@@ -0,0 +1,223 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+
+/**
+ * In-memory inverted index over item names and descriptions. Postings live in a sorted map so the
+ * last query term can be matched as a prefix for autocomplete; a prefix has to be at least
+ * {@link #MIN_PREFIX_LENGTH} characters and expands to at most {@link #MAX_PREFIX_TERMS} terms, so a
+ * one-letter query cannot walk the whole vocabulary. The index is loaded on first use and
+ * then kept current from {@link ItemChangedEvent}s; readers never lock.
+ */
+@Component
+public class ItemSearchIndex {
+
+	private static final int NAME_WEIGHT = 3;
+
+	private static final int DESCRIPTION_WEIGHT = 1;
+
+	static final int MIN_PREFIX_LENGTH = 2;
+
+	static final int MAX_PREFIX_TERMS = 50;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	// token -> (item id -> field weight)
+	private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+
+	private final Map<Long, Item> documents = new ConcurrentHashMap<>();
+
+	private volatile boolean loaded;
+
+	public List<Item> search(String query, int limit) {
+		ensureLoaded();
+		List<String> terms = tokenize(query);
+		if(terms.isEmpty()) {
+			return Collections.emptyList();
+		}
+		boolean prefixLast = !Character.isWhitespace(query.charAt(query.length() - 1));
+		Map<Long, Double> scores = null;
+		for (int i = 0; i < terms.size(); i++) {
+			Map<Long, Double> termScores = score(terms.get(i), prefixLast && i == terms.size() - 1);
+			if(scores == null) {
+				scores = termScores;
+			} else {
+				// Every term has to match; keep only the items seen for all of them.
+				scores.keySet().retainAll(termScores.keySet());
+				scores.replaceAll((id, score) -> score + termScores.get(id));
+			}
+			if(scores.isEmpty()) {
+				return Collections.emptyList();
+			}
+		}
+		List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+		ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+		List<Item> results = new ArrayList<>(Math.min(limit, ranked.size()));
+		for (Map.Entry<Long, Double> entry : ranked) {
+			Item item = documents.get(entry.getKey());
+			if(item != null) {
+				results.add(item);
+				if(results.size() == limit) {
+					break;
+				}
+			}
+		}
+		return results;
+	}
+
+	public List<String> suggest(String prefix, int limit) {
+		Set<String> names = new LinkedHashSet<>();
+		for (Item item : search(prefix, limit * 4)) {
+			names.add(item.getName());
+			if(names.size() == limit) {
+				break;
+			}
+		}
+		return new ArrayList<>(names);
+	}
+
+	public int size() {
+		return documents.size();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onItemChanged(ItemChangedEvent event) {
+		if(!loaded) {
+			return;
+		}
+		if(event.isBulk()) {
+			Set<Long> missing = new HashSet<>(event.getItemIds());
+			for (Item item : itemRepository.findAllById(event.getItemIds())) {
+				index(item);
+				missing.remove(item.getId());
+			}
+			missing.forEach(this::remove);
+		} else if(event.isRemoved()) {
+			remove(event.getItem().getId());
+		} else {
+			index(event.getItem());
+		}
+	}
+
+	private Map<Long, Double> score(String term, boolean prefix) {
+		Map<String, Map<Long, Integer>> matches = prefix && term.length() >= MIN_PREFIX_LENGTH
+				? postings.subMap(term, true, term + Character.MAX_VALUE, true)
+				: postings.containsKey(term) ? Collections.singletonMap(term, postings.get(term)) : Collections.emptyMap();
+		int total = Math.max(1, documents.size());
+		Map<Long, Double> scores = new HashMap<>();
+		int expanded = 0;
+		for (Map.Entry<String, Map<Long, Integer>> match : matches.entrySet()) {
+			if(expanded++ == MAX_PREFIX_TERMS) {
+				// The exact term sorts first, so it is never the one cut off.
+				break;
+			}
+			Map<Long, Integer> posting = match.getValue();
+			double idf = Math.log(1.0 + (double) total / (1 + posting.size()));
+			// Completions of a prefix rank below an exact hit on the same term.
+			double boost = match.getKey().equals(term) ? 1.0 : 0.5;
+			for (Map.Entry<Long, Integer> hit : posting.entrySet()) {
+				scores.merge(hit.getKey(), hit.getValue() * idf * boost, Math::max);
+			}
+		}
+		return scores;
+	}
+
+	private void ensureLoaded() {
+		if(!loaded) {
+			load();
+		}
+	}
+
+	private synchronized void load() {
+		if(loaded) {
+			return;
+		}
+		// Read-write so the index, which is only patched by later changes, is loaded from the primary.
+		for (Item item : new TransactionTemplate(transactionManager).execute(status -> itemRepository.findAll())) {
+			index(item);
+		}
+		loaded = true;
+	}
+
+	private void index(Item source) {
+		remove(source.getId());
+		Item item = copyOf(source);
+		Map<String, Integer> weights = new HashMap<>();
+		for (String token : tokenize(item.getDescription())) {
+			weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum);
+		}
+		for (String token : tokenize(item.getName())) {
+			weights.merge(token, NAME_WEIGHT, Integer::sum);
+		}
+		documents.put(item.getId(), item);
+		weights.forEach((token, weight) ->
+				postings.computeIfAbsent(token, t -> new ConcurrentHashMap<>()).put(item.getId(), weight));
+	}
+
+	private void remove(Long id) {
+		Item previous = documents.remove(id);
+		if(previous == null) {
+			return;
+		}
+		Set<String> tokens = new HashSet<>(tokenize(previous.getName()));
+		tokens.addAll(tokenize(previous.getDescription()));
+		for (String token : tokens) {
+			postings.computeIfPresent(token, (t, posting) -> {
+				posting.remove(id);
+				return posting.isEmpty() ? null : posting;
+			});
+		}
+	}
+
+	static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		if(text == null) {
+			return tokens;
+		}
+		String lower = text.toLowerCase(Locale.ROOT);
+		int start = -1;
+		for (int i = 0; i <= lower.length(); i++) {
+			boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+			if(wordChar && start < 0) {
+				start = i;
+			} else if(!wordChar && start >= 0) {
+				tokens.add(lower.substring(start, i));
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	private static Item copyOf(Item source) {
+		Item item = new Item();
+		item.setId(source.getId());
+		item.setName(source.getName());
+		item.setPrice(source.getPrice());
+		item.setDescription(source.getDescription());
+		return item;
+	}
+
+}
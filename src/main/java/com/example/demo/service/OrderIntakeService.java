@@ -0,0 +1,237 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.logging.LogEvents;
+import com.example.demo.model.persistence.User;
+import com.example.demo.model.persistence.UserOrder;
+import com.example.demo.model.persistence.repositories.OrderRepository;
+import com.example.demo.model.responses.OrderStatus;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Accepts orders onto a bounded queue and persists them from a single writer thread, many orders per
+ * transaction. A full queue rejects the order instead of blocking the request thread. Statuses of
+ * finished orders are kept for the most recent {@code statusRetention} orders only. On shutdown the
+ * writer keeps draining for up to {@code shutdownGraceMillis}; whatever is still queued after that is
+ * abandoned and counted in the log.
+ */
+@Slf4j
+@Component
+public class OrderIntakeService implements MeterBinder {
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final BlockingQueue<Pending> queue;
+
+	private final int batchSize;
+
+	private final int statusRetention;
+
+	private final long shutdownGraceMillis;
+
+	private final Map<String, OrderStatus> statuses = new ConcurrentHashMap<>();
+
+	private final Queue<String> finished = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger finishedCount = new AtomicInteger();
+
+	private final LongAdder persisted = new LongAdder();
+
+	private final LongAdder failed = new LongAdder();
+
+	private final LongAdder rejected = new LongAdder();
+
+	private final Thread writer;
+
+	private volatile boolean running = true;
+
+	private volatile boolean abandoned;
+
+	public OrderIntakeService(PlatformTransactionManager transactionManager,
+			@Value("${orders.intake.queue-capacity:1000}") int queueCapacity,
+			@Value("${orders.intake.batch-size:100}") int batchSize,
+			@Value("${orders.intake.status-retention:10000}") int statusRetention,
+			@Value("${orders.intake.shutdown-grace-millis:10000}") long shutdownGraceMillis) {
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.batchSize = batchSize;
+		this.statusRetention = statusRetention;
+		this.shutdownGraceMillis = shutdownGraceMillis;
+		this.writer = new Thread(this::drain, "order-intake-writer");
+		this.writer.setDaemon(true);
+	}
+
+	@PostConstruct
+	public void start() {
+		writer.start();
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		writer.join(shutdownGraceMillis);
+		if(writer.isAlive()) {
+			// Out of time: finish the batch in flight, then stop. The interrupt only wakes a writer
+			// waiting on an empty poll.
+			abandoned = true;
+			writer.interrupt();
+			writer.join(shutdownGraceMillis);
+		}
+		int remaining = queue.size();
+		if(remaining > 0) {
+			log.error("Abandoned {} queued orders on shutdown", LogEvents.count(remaining),
+					LogEvents.event("order.intake.abandoned"));
+		}
+	}
+
+	/**
+	 * Queues {@code order} for persistence and returns its status, or null if the queue is full.
+	 */
+	public OrderStatus submit(UserOrder order) {
+		String reference = UUID.randomUUID().toString();
+		OrderStatus status = new OrderStatus(reference, OrderStatus.State.QUEUED, null);
+		statuses.put(reference, status);
+		if(!queue.offer(new Pending(reference, order))) {
+			statuses.remove(reference);
+			rejected.increment();
+			return null;
+		}
+		return status;
+	}
+
+	public OrderStatus getStatus(String reference) {
+		return statuses.get(reference);
+	}
+
+	public int getQueueDepth() {
+		return queue.size();
+	}
+
+	private void drain() {
+		List<Pending> batch = new ArrayList<>(batchSize);
+		while (!abandoned && (running || !queue.isEmpty())) {
+			try {
+				Pending first = queue.poll(1, TimeUnit.SECONDS);
+				if(first == null) {
+					continue;
+				}
+				batch.add(first);
+			} catch (InterruptedException e) {
+				// Woken up to give up; the loop condition ends the drain.
+				continue;
+			}
+			queue.drainTo(batch, batchSize - batch.size());
+			if(!batch.isEmpty()) {
+				write(batch);
+				batch.clear();
+			}
+		}
+	}
+
+	private void write(List<Pending> batch) {
+		try {
+			transactionTemplate.execute(status -> orderRepository.saveAll(
+					batch.stream().map(p -> attach(p.order)).collect(Collectors.toList())));
+			batch.forEach(p -> finish(p, OrderStatus.State.PERSISTED));
+		} catch (RuntimeException e) {
+			log.error("Unable to persist order batch of {}, retrying one by one", LogEvents.count(batch.size()),
+					LogEvents.event("order.intake.batch.failed"), e);
+			// One bad order must not fail the rest of the batch.
+			for (Pending p : batch) {
+				try {
+					transactionTemplate.execute(status -> orderRepository.save(attach(p.order)));
+					finish(p, OrderStatus.State.PERSISTED);
+				} catch (RuntimeException single) {
+					log.error("Unable to persist order {}", LogEvents.order(p.reference),
+							LogEvents.event("order.intake.failed"), single);
+					finish(p, OrderStatus.State.FAILED);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Points the order at a user reference owned by the writer's persistence context; the user was
+	 * loaded by the request thread and is detached by now.
+	 */
+	private UserOrder attach(UserOrder order) {
+		order.setId(null);
+		order.getItems().forEach(line -> line.setId(null));
+		order.setUser(entityManager.getReference(User.class, order.getUser().getId()));
+		return order;
+	}
+
+	private void finish(Pending p, OrderStatus.State state) {
+		(state == OrderStatus.State.PERSISTED ? persisted : failed).increment();
+		statuses.put(p.reference, new OrderStatus(p.reference, state, p.order.getId()));
+		finished.add(p.reference);
+		if(finishedCount.incrementAndGet() > statusRetention) {
+			String oldest = finished.poll();
+			if(oldest != null) {
+				finishedCount.decrementAndGet();
+				statuses.remove(oldest);
+			}
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("orders.intake.queue.depth", queue, BlockingQueue::size)
+				.description("Orders waiting for the intake writer")
+				.register(registry);
+		FunctionCounter.builder("orders.intake.orders", persisted, LongAdder::sum)
+				.tag("result", "persisted").register(registry);
+		FunctionCounter.builder("orders.intake.orders", failed, LongAdder::sum)
+				.tag("result", "failed").register(registry);
+		FunctionCounter.builder("orders.intake.orders", rejected, LongAdder::sum)
+				.tag("result", "rejected").register(registry);
+	}
+
+	private static final class Pending {
+
+		private final String reference;
+
+		private final UserOrder order;
+
+		private Pending(String reference, UserOrder order) {
+			this.reference = reference;
+			this.order = order;
+		}
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.example.demo.service;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.example.demo.model.persistence.User;
+
+public class UserChangedEvent extends ApplicationEvent {
+
+	private final User user;
+
+	public UserChangedEvent(Object source, User user) {
+		super(source);
+		this.user = user;
+	}
+
+	public User getUser() {
+		return user;
+	}
+
+}
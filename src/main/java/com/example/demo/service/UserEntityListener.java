@@ -0,0 +1,26 @@
+package com.example.demo.service;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.model.persistence.User;
+
+@Component
+public class UserEntityListener {
+
+	@Autowired
+	private ApplicationEventPublisher publisher;
+
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	public void userChanged(User user) {
+		publisher.publishEvent(new UserChangedEvent(this, user));
+	}
+
+}
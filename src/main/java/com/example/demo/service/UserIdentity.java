@@ -0,0 +1,54 @@
+package com.example.demo.service;
+
+import com.example.demo.model.persistence.User;
+
+/**
+ * The handful of user fields needed to authorize and route a request, detached from any session.
+ */
+public final class UserIdentity {
+
+	private final long userId;
+
+	private final Long cartId;
+
+	private final String username;
+
+	private final String passwordHash;
+
+	public UserIdentity(long userId, Long cartId, String username, String passwordHash) {
+		this.userId = userId;
+		this.cartId = cartId;
+		this.username = username;
+		this.passwordHash = passwordHash;
+	}
+
+	public static UserIdentity of(User user) {
+		return new UserIdentity(user.getId(), user.getCart() == null ? null : user.getCart().getId(),
+				user.getUsername(), user.getPassword());
+	}
+
+	public long getUserId() {
+		return userId;
+	}
+
+	public Long getCartId() {
+		return cartId;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public String getPasswordHash() {
+		return passwordHash;
+	}
+
+	// A transient User carrying only the public fields, for responses that would otherwise load the row.
+	public User toUser() {
+		User user = new User();
+		user.setId(userId);
+		user.setUsername(username);
+		return user;
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.example.demo.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.demo.model.persistence.User;
+import com.example.demo.model.persistence.repositories.UserRepository;
+import com.example.demo.util.BoundedMaps;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Bounded, expiring username to {@link UserIdentity} cache shared by the controllers and the login
+ * path. Entries are dropped after every committed change to the user; the TTL bounds how long a
+ * read racing such a change can keep serving the old identity.
+ */
+@Component
+public class UserIdentityCache implements MeterBinder {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private final int maxSize;
+
+	private final long ttlNanos;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	public UserIdentityCache(@Value("${cache.user-identity.max-size:10000}") int maxSize,
+			@Value("${cache.user-identity.ttl-seconds:300}") long ttlSeconds) {
+		this.maxSize = maxSize;
+		this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+	}
+
+	/**
+	 * Returns the identity for {@code username}, loading it on a miss, or null if no such user exists.
+	 */
+	public UserIdentity get(String username) {
+		if(username == null) {
+			return null;
+		}
+		long now = System.nanoTime();
+		Entry entry = entries.get(username);
+		if(entry != null && now - entry.loadedAt < ttlNanos) {
+			hits.increment();
+			return entry.identity;
+		}
+		misses.increment();
+		User user = userRepository.findByUsername(username);
+		if(user == null) {
+			entries.remove(username);
+			return null;
+		}
+		UserIdentity identity = UserIdentity.of(user);
+		if(entries.size() >= maxSize) {
+			BoundedMaps.makeRoom(entries, maxSize, cached -> now - cached.loadedAt >= ttlNanos);
+		}
+		entries.put(username, new Entry(identity, now));
+		return identity;
+	}
+
+	public void invalidate(String username) {
+		entries.remove(username);
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		User user = event.getUser();
+		// The username itself may have changed, so drop anything pointing at this user id as well.
+		invalidate(user.getUsername());
+		entries.values().removeIf(entry -> entry.identity.getUserId() == user.getId());
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("cache.user.identity.gets", this, UserIdentityCache::getHitCount)
+				.tag("result", "hit")
+				.description("Username lookups answered from the identity cache")
+				.register(registry);
+		FunctionCounter.builder("cache.user.identity.gets", this, UserIdentityCache::getMissCount)
+				.tag("result", "miss")
+				.description("Username lookups that had to query the user table")
+				.register(registry);
+		Gauge.builder("cache.user.identity.size", this, UserIdentityCache::size)
+				.register(registry);
+	}
+
+	private static final class Entry {
+		private final UserIdentity identity;
+		private final long loadedAt;
+
+		private Entry(UserIdentity identity, long loadedAt) {
+			this.identity = identity;
+			this.loadedAt = loadedAt;
+		}
+	}
+
+}
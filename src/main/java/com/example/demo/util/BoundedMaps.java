@@ -0,0 +1,31 @@
+package com.example.demo.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Eviction shared by the in-memory maps that must stay under a fixed number of keys but whose
+ * entries also go stale on their own.
+ */
+public final class BoundedMaps {
+
+	private BoundedMaps() {
+	}
+
+	/**
+	 * Makes room in {@code map} before a key is added. Expired values are dropped first; if the map is
+	 * still full of live ones, an arbitrary tenth of {@code maxSize} is dropped as well, so the next
+	 * inserts do not each pay for another full scan.
+	 */
+	public static <K, V> void makeRoom(Map<K, V> map, int maxSize, Predicate<? super V> expired) {
+		map.values().removeIf(expired);
+		Iterator<K> it = map.keySet().iterator();
+		int excess = map.size() - maxSize + Math.max(1, maxSize / 10);
+		while (excess-- > 0 && it.hasNext()) {
+			it.next();
+			it.remove();
+		}
+	}
+
+}
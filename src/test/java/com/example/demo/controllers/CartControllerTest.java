@@ -1,10 +1,15 @@
 package com.example.demo.controllers;
 
 import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.CartItem;
 import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.Money;
 import com.example.demo.model.persistence.User;
+import com.example.demo.model.persistence.repositories.CartRepository;
 import com.example.demo.model.persistence.repositories.ItemRepository;
 import com.example.demo.model.persistence.repositories.UserRepository;
+import com.example.demo.model.requests.BatchModifyCartRequest;
+import com.example.demo.model.requests.CartOperation;
 import com.example.demo.model.requests.ModifyCartRequest;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -23,14 +28,16 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
-import java.math.BigDecimal;
 import java.net.URI;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Collections;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -47,6 +54,9 @@ public class CartControllerTest {
     @MockBean
     private ItemRepository itemRepository;
 
+    @MockBean
+    private CartRepository cartRepository;
+
     private Cart cart;
 
     private User user;
@@ -67,18 +77,26 @@ public class CartControllerTest {
         item = new Item();
         item.setId(1L);
         item.setName("widget");
-        item.setPrice(new BigDecimal("2.99"));
+        item.setPrice(Money.of("2.99"));
         item.setDescription("A widget that is round");
-        List<Item> items = new LinkedList<>();
-        items.add(item);
 
         cart.setId(1L);
         cart.setUser(user);
-        cart.setItems(items);
-        cart.setTotal(item.getPrice());
+        cart.addItem(item);
 
         given(userRepository.findByUsername(user.getUsername())).willReturn(user);
+        given(cartRepository.findById(cart.getId())).willReturn(java.util.Optional.of(cart));
         given(itemRepository.findById(item.getId())).willReturn(java.util.Optional.ofNullable(item));
+        given(itemRepository.findAllById(Collections.singleton(item.getId())))
+                .willReturn(Collections.singletonList(item));
+    }
+
+    private CartOperation operation(CartOperation.Action action, long itemId, int quantity) {
+        CartOperation operation = new CartOperation();
+        operation.setAction(action);
+        operation.setItemId(itemId);
+        operation.setQuantity(quantity);
+        return operation;
     }
 
     @Test
@@ -100,7 +118,51 @@ public class CartControllerTest {
         assertEquals(resultCart.getUser().getUsername(), user.getUsername());
         assertEquals(resultCart.getUser().getId(), user.getId());
         assertEquals(resultCart.getTotal(), cart.getTotal());
-        assertEquals(resultCart.getItems(), cart.getItems());
+        assertEquals(resultCart.getItems().size(), 1);
+        CartItem resultLine = resultCart.getItems().get(0);
+        assertEquals(resultLine.getItemId(), item.getId());
+        assertEquals(resultLine.getQuantity(), 2);
+        assertEquals(resultLine.getUnitPrice(), item.getPrice());
+        assertEquals(resultCart.getTotal(), Money.of("5.98"));
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void addToCartCompactView() throws Exception {
+        ModifyCartRequest cartRequest = new ModifyCartRequest();
+        cartRequest.setUsername(user.getUsername());
+        cartRequest.setItemId(item.getId());
+        cartRequest.setQuantity(1);
+        MvcResult response = mvc.perform(post(new URI("/api/cart/addToCart?view=compact"))
+                .content(ow.writeValueAsString(cartRequest))
+                .contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.version").exists())
+                .andExpect(jsonPath("$.total").value(5.98))
+                .andExpect(jsonPath("$.delta").value(false))
+                .andExpect(jsonPath("$.lines", hasSize(1)))
+                .andExpect(jsonPath("$.lines[0].itemId").value(1))
+                .andExpect(jsonPath("$.lines[0].name").value("widget"))
+                .andExpect(jsonPath("$.lines[0].unitPrice").value(2.99))
+                .andExpect(jsonPath("$.lines[0].quantity").value(2))
+                .andReturn();
+        String result = response.getResponse().getContentAsString();
+        assertFalse(result.contains("description"));
+        assertFalse(result.contains("user"));
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void addToCartInvalidView() throws Exception {
+        ModifyCartRequest cartRequest = new ModifyCartRequest();
+        cartRequest.setUsername(user.getUsername());
+        cartRequest.setItemId(item.getId());
+        cartRequest.setQuantity(1);
+        mvc.perform(post(new URI("/api/cart/addToCart?view=tiny"))
+                .content(ow.writeValueAsString(cartRequest))
+                .contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -144,10 +206,29 @@ public class CartControllerTest {
         assertEquals(resultCart.getId(), cart.getId());
         assertEquals(resultCart.getUser().getUsername(), user.getUsername());
         assertEquals(resultCart.getUser().getId(), user.getId());
-        assertEquals(resultCart.getTotal(), new BigDecimal("0.00"));
+        assertEquals(resultCart.getTotal(), Money.of("0.00"));
         assertEquals(resultCart.getItems().size(), 0);
     }
 
+    @Test
+    @WithMockUser(username="test")
+    public void removeFromCartDeltaView() throws Exception {
+        ModifyCartRequest cartRequest = new ModifyCartRequest();
+        cartRequest.setUsername(user.getUsername());
+        cartRequest.setItemId(item.getId());
+        cartRequest.setQuantity(1);
+        mvc.perform(post(new URI("/api/cart/removeFromCart?view=delta"))
+                .content(ow.writeValueAsString(cartRequest))
+                .contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0.0))
+                .andExpect(jsonPath("$.delta").value(true))
+                .andExpect(jsonPath("$.lines", hasSize(1)))
+                .andExpect(jsonPath("$.lines[0].itemId").value(1))
+                .andExpect(jsonPath("$.lines[0].quantity").value(0))
+                .andExpect(jsonPath("$.lines[0].name").doesNotExist());
+    }
+
     @Test
     @WithMockUser(username="test")
     public void removeFromCartInvalidUserName() throws Exception {
@@ -171,4 +252,63 @@ public class CartControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser(username="test")
+    public void modifyCartSuccess() throws Exception {
+        BatchModifyCartRequest cartRequest = new BatchModifyCartRequest();
+        cartRequest.setUsername(user.getUsername());
+        cartRequest.setOperations(Arrays.asList(
+                operation(CartOperation.Action.ADD, item.getId(), 4),
+                operation(CartOperation.Action.REMOVE, item.getId(), 2),
+                operation(CartOperation.Action.SET, item.getId(), 10)));
+        MvcResult response = mvc.perform(post(new URI("/api/cart/batch"))
+                .content(ow.writeValueAsString(cartRequest))
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk()).andReturn();
+        String result = response.getResponse().getContentAsString();
+        ObjectMapper mapper = new ObjectMapper();
+        Cart resultCart = mapper.readValue(result, new TypeReference<Cart>(){});
+        assertEquals(resultCart.getId(), cart.getId());
+        assertEquals(resultCart.getQuantity(item.getId()), 10);
+        assertEquals(resultCart.getTotal(), Money.of("29.90"));
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void modifyCartInvalidUserName() throws Exception {
+        BatchModifyCartRequest cartRequest = new BatchModifyCartRequest();
+        cartRequest.setUsername("invalid-user-name");
+        cartRequest.setOperations(Collections.singletonList(operation(CartOperation.Action.ADD, item.getId(), 1)));
+        mvc.perform(post(new URI("/api/cart/batch"))
+                .content(ow.writeValueAsString(cartRequest))
+                .contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void modifyCartInvalidItemId() throws Exception {
+        BatchModifyCartRequest cartRequest = new BatchModifyCartRequest();
+        cartRequest.setUsername(user.getUsername());
+        cartRequest.setOperations(Arrays.asList(
+                operation(CartOperation.Action.ADD, item.getId(), 1),
+                operation(CartOperation.Action.ADD, 2L, 1)));
+        mvc.perform(post(new URI("/api/cart/batch"))
+                .content(ow.writeValueAsString(cartRequest))
+                .contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void modifyCartInvalidQuantity() throws Exception {
+        BatchModifyCartRequest cartRequest = new BatchModifyCartRequest();
+        cartRequest.setUsername(user.getUsername());
+        cartRequest.setOperations(Collections.singletonList(operation(CartOperation.Action.SET, item.getId(), -1)));
+        mvc.perform(post(new URI("/api/cart/batch"))
+                .content(ow.writeValueAsString(cartRequest))
+                .contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,86 @@
+package com.example.demo.controllers;
+
+import com.example.demo.model.responses.ImportReport;
+import com.example.demo.service.ItemImportService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ItemAdminControllerTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private ItemImportService itemImportService;
+
+    private ImportReport report;
+
+    @Before
+    public void setup() throws Exception {
+        report = new ImportReport();
+        report.setRowsRead(2);
+        report.setRowsWritten(2);
+        given(itemImportService.importItems(ArgumentMatchers.any(), ArgumentMatchers.any())).willReturn(report);
+        given(itemImportService.updatePrices(ArgumentMatchers.any(), ArgumentMatchers.any())).willReturn(report);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void importCsv() throws Exception {
+        mvc.perform(post(new URI("/api/admin/items/import"))
+                .contentType(ItemAdminController.TEXT_CSV)
+                .content("name,price,description\nWidget,1.00,A widget\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsWritten").value(2));
+        verify(itemImportService).importItems(ArgumentMatchers.any(), eq(ItemImportService.Format.CSV));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void updatePricesNdjson() throws Exception {
+        mvc.perform(post(new URI("/api/admin/items/prices"))
+                .contentType(ItemAdminController.APPLICATION_NDJSON)
+                .content("{\"id\":1,\"price\":1.00}\n"))
+                .andExpect(status().isOk());
+        verify(itemImportService).updatePrices(ArgumentMatchers.any(), eq(ItemImportService.Format.NDJSON));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void importUnsupportedFormat() throws Exception {
+        mvc.perform(post(new URI("/api/admin/items/import"))
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<items/>"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    @WithMockUser(username = "test")
+    public void importRequiresAdmin() throws Exception {
+        mvc.perform(post(new URI("/api/admin/items/import"))
+                .contentType(ItemAdminController.TEXT_CSV)
+                .content("name,price,description\n"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -1,33 +1,47 @@
 package com.example.demo.controllers;
 
 import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.Money;
 import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.model.responses.ItemPage;
+import com.example.demo.service.ItemChangedEvent;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.json.AutoConfigureJsonTesters;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
-import java.math.BigDecimal;
+import java.io.ByteArrayInputStream;
 import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -42,6 +56,9 @@ public class ItemControllerTest {
     @MockBean
     private ItemRepository itemRepository;
 
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
     private Item item;
 
     @Before
@@ -49,7 +66,7 @@ public class ItemControllerTest {
         item = new Item();
         item.setId(1L);
         item.setName("widget");
-        item.setPrice(new BigDecimal("2.99"));
+        item.setPrice(Money.of("2.99"));
         item.setDescription("A widget that is round");
         given(itemRepository.findById(item.getId())).willReturn(java.util.Optional.of(item));
         List<Item> items = new LinkedList<>();
@@ -74,6 +91,113 @@ public class ItemControllerTest {
         assertEquals(resultItem.getPrice(), item.getPrice());
     }
 
+    @Test
+    @WithMockUser(username="test")
+    public void getItemsNotModified() throws Exception {
+        String eTag = mvc.perform(get(new URI("/api/item")))
+                .andExpect(status().isOk()).andReturn()
+                .getResponse().getHeader(HttpHeaders.ETAG);
+        mvc.perform(get(new URI("/api/item")).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void getItemsGzip() throws Exception {
+        MvcResult response = mvc.perform(get(new URI("/api/item")).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(status().isOk()).andReturn();
+        ObjectMapper mapper = new ObjectMapper();
+        List<Item> items = mapper.readValue(new GZIPInputStream(
+                new ByteArrayInputStream(response.getResponse().getContentAsByteArray())),
+                new TypeReference<List<Item>>(){});
+        assertEquals(items.get(0).getId(), item.getId());
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void getItemsGzipRefused() throws Exception {
+        mvc.perform(get(new URI("/api/item")).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void acceptsGzipHonoursQValues() {
+        assertTrue(ItemController.acceptsGzip("gzip, deflate"));
+        assertTrue(ItemController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(ItemController.acceptsGzip("*"));
+        assertFalse(ItemController.acceptsGzip(null));
+        assertFalse(ItemController.acceptsGzip("identity"));
+        assertFalse(ItemController.acceptsGzip("gzip;q=0"));
+        assertFalse(ItemController.acceptsGzip("gzip; q=0.0, *"));
+        assertFalse(ItemController.acceptsGzip("*;q=0"));
+        assertFalse(ItemController.acceptsGzip("x-gzipped"));
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void getItemsRefreshedAfterItemChange() throws Exception {
+        String eTag = mvc.perform(get(new URI("/api/item")))
+                .andExpect(status().isOk()).andReturn()
+                .getResponse().getHeader(HttpHeaders.ETAG);
+        Item other = new Item();
+        other.setId(2L);
+        other.setName("gadget");
+        other.setPrice(Money.of("1.99"));
+        other.setDescription("A gadget that is square");
+        given(itemRepository.findAll()).willReturn(Arrays.asList(item, other));
+        publisher.publishEvent(new ItemChangedEvent(this, other, false));
+        MvcResult response = mvc.perform(get(new URI("/api/item")).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk()).andReturn();
+        List<Item> items = new ObjectMapper().readValue(response.getResponse().getContentAsString(),
+                new TypeReference<List<Item>>(){});
+        assertEquals(2, items.size());
+        assertNotEquals(eTag, response.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void getItemPageSuccess() throws Exception {
+        given(itemRepository.findAllBy(ArgumentMatchers.any())).willReturn(Collections.singletonList(item));
+        MvcResult response = mvc.perform(get(new URI("/api/item/page?sort=name&size=10")))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk()).andReturn();
+        ItemPage page = new ObjectMapper().readValue(response.getResponse().getContentAsString(), ItemPage.class);
+        assertEquals(page.getItems().get(0).getId(), item.getId());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void getItemPageInvalidCursor() throws Exception {
+        mvc.perform(get(new URI("/api/item/page?sort=price&cursor=not-a-cursor")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void searchItemsSuccess() throws Exception {
+        MvcResult response = mvc.perform(get(new URI("/api/item/search?q=rou")))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk()).andReturn();
+        List<Item> items = new ObjectMapper().readValue(response.getResponse().getContentAsString(),
+                new TypeReference<List<Item>>(){});
+        assertEquals(1, items.size());
+        assertEquals(items.get(0).getName(), item.getName());
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void suggestItemNamesSuccess() throws Exception {
+        MvcResult response = mvc.perform(get(new URI("/api/item/suggest?prefix=wid")))
+                .andExpect(status().isOk()).andReturn();
+        List<String> names = new ObjectMapper().readValue(response.getResponse().getContentAsString(),
+                new TypeReference<List<String>>(){});
+        assertEquals(names.get(0), item.getName());
+    }
+
     @Test
     @WithMockUser(username="test")
     public void getItemByIdSuccess() throws Exception {
@@ -2,10 +2,14 @@ package com.example.demo.controllers;
 
 import com.example.demo.model.persistence.Cart;
 import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.OrderItem;
+import com.example.demo.model.persistence.Money;
 import com.example.demo.model.persistence.User;
 import com.example.demo.model.persistence.UserOrder;
+import com.example.demo.model.persistence.repositories.CartRepository;
 import com.example.demo.model.persistence.repositories.OrderRepository;
 import com.example.demo.model.persistence.repositories.UserRepository;
+import com.example.demo.model.responses.OrderStatus;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Before;
@@ -17,19 +21,24 @@ import org.springframework.boot.test.autoconfigure.json.AutoConfigureJsonTesters
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
-import java.math.BigDecimal;
 import java.net.URI;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -48,6 +57,9 @@ public class OrderControllerTest {
     @MockBean
     private OrderRepository orderRepository;
 
+    @MockBean
+    private CartRepository cartRepository;
+
     private Cart cart;
 
     private User user;
@@ -68,27 +80,24 @@ public class OrderControllerTest {
         item = new Item();
         item.setId(1L);
         item.setName("widget");
-        item.setPrice(new BigDecimal("2.99"));
+        item.setPrice(Money.of("2.99"));
         item.setDescription("A widget that is round");
-        List<Item> items = new LinkedList<>();
-        items.add(item);
 
         cart.setId(1L);
         cart.setUser(user);
-        cart.setItems(items);
-        cart.setTotal(item.getPrice());
+        cart.addItem(item);
 
-        order = new UserOrder();
+        order = UserOrder.createFromCart(cart);
         order.setId(1L);
-        order.setTotal(cart.getTotal());
-        order.setItems(cart.getItems());
-        order.setUser(user);
 
         given(userRepository.findByUsername(user.getUsername())).willReturn(user);
+        given(cartRepository.findById(cart.getId())).willReturn(java.util.Optional.of(cart));
         given(orderRepository.save(ArgumentMatchers.any())).willReturn(order);
         List<UserOrder> orders = new LinkedList<>();
         orders.add(order);
-        given(orderRepository.findByUser(ArgumentMatchers.any())).willReturn(orders);
+        given(orderRepository.findIdsByUserId(ArgumentMatchers.eq(user.getId()), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any())).willReturn(Collections.singletonList(order.getId()));
+        given(orderRepository.findWithItemsByIdIn(Collections.singletonList(order.getId()))).willReturn(orders);
     }
 
     @Test
@@ -104,11 +113,11 @@ public class OrderControllerTest {
         assertEquals(resultOrder.getTotal(), order.getTotal());
         assertEquals(resultOrder.getUser().getUsername(), order.getUser().getUsername());
         assertEquals(resultOrder.getUser().getId(), order.getUser().getId());
-        Item resultItem = resultOrder.getItems().get(0);
-        assertEquals(resultItem.getId(), item.getId());
-        assertEquals(resultItem.getPrice(), item.getPrice());
-        assertEquals(resultItem.getDescription(), item.getDescription());
-        assertEquals(resultItem.getName(), item.getName());
+        OrderItem resultLine = resultOrder.getItems().get(0);
+        assertEquals(resultLine.getItemId(), item.getId());
+        assertEquals(resultLine.getUnitPrice(), item.getPrice());
+        assertEquals(resultLine.getName(), item.getName());
+        assertEquals(1, resultLine.getQuantity());
     }
 
     @Test
@@ -118,6 +127,33 @@ public class OrderControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser(username="test")
+    public void submitOrderAsync() throws Exception {
+        MvcResult response = mvc.perform(post(new URI("/api/order/submitAsync/" + user.getUsername())))
+                .andExpect(status().isAccepted()).andReturn();
+        ObjectMapper mapper = new ObjectMapper();
+        OrderStatus accepted = mapper.readValue(response.getResponse().getContentAsString(), OrderStatus.class);
+        assertEquals("/api/order/status/" + accepted.getReference(), response.getResponse().getHeader("Location"));
+
+        OrderStatus status = accepted;
+        for (int i = 0; i < 100 && status.getState() == OrderStatus.State.QUEUED; i++) {
+            Thread.sleep(50);
+            String result = mvc.perform(get(new URI("/api/order/status/" + accepted.getReference())))
+                    .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+            status = mapper.readValue(result, OrderStatus.class);
+        }
+        assertEquals(OrderStatus.State.PERSISTED, status.getState());
+        verify(orderRepository).saveAll(ArgumentMatchers.any());
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void getStatusUnknownReference() throws Exception {
+        mvc.perform(get(new URI("/api/order/status/unknown")))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @WithMockUser(username="test")
     public void getOrdersForUserSuccess() throws Exception {
@@ -132,11 +168,28 @@ public class OrderControllerTest {
         assertEquals(resultOrder.getTotal(), order.getTotal());
         assertEquals(resultOrder.getUser().getUsername(), order.getUser().getUsername());
         assertEquals(resultOrder.getUser().getId(), order.getUser().getId());
-        Item resultItem = resultOrder.getItems().get(0);
-        assertEquals(resultItem.getId(), item.getId());
-        assertEquals(resultItem.getPrice(), item.getPrice());
-        assertEquals(resultItem.getDescription(), item.getDescription());
-        assertEquals(resultItem.getName(), item.getName());
+        OrderItem resultLine = resultOrder.getItems().get(0);
+        assertEquals(resultLine.getItemId(), item.getId());
+        assertEquals(resultLine.getUnitPrice(), item.getPrice());
+        assertEquals(resultLine.getName(), item.getName());
+        assertEquals(1, resultLine.getQuantity());
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void getOrdersForUserPageAndDateRange() throws Exception {
+        mvc.perform(get(new URI("/api/order/history/" + user.getUsername() + "?page=1&size=5&from=2020-01-01&to=2020-01-31")))
+                .andExpect(status().isOk());
+        Date from = Date.from(LocalDate.of(2020, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        Date to = Date.from(LocalDate.of(2020, 2, 1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        verify(orderRepository).findIdsByUserId(user.getId(), from, to, PageRequest.of(1, 5));
+    }
+
+    @Test
+    @WithMockUser(username="test")
+    public void getOrdersForUserInvalidPageSize() throws Exception {
+        mvc.perform(get(new URI("/api/order/history/" + user.getUsername() + "?size=0")))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
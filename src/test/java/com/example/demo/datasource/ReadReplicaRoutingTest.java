@@ -0,0 +1,127 @@
+package com.example.demo.datasource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.demo.model.persistence.Item;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Uses a second in-memory H2 database as the replica, seeded from a script of the primary and then
+ * changed so each test can tell which database answered. Item 1 differs between the two; item 999
+ * exists only on the replica, so no other test can have cached it.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "app.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.read-your-writes-ms=60000"})
+@AutoConfigureMockMvc
+public class ReadReplicaRoutingTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReadYourWritesWindow readYourWritesWindow;
+
+    private String primaryName;
+
+    @Before
+    public void copyPrimaryToReplica() throws Exception {
+        JdbcTemplate primary = new JdbcTemplate(dataSource);
+        List<String> script = primary.queryForList("SCRIPT", String.class);
+        primaryName = primary.queryForObject("select name from item where id = 1", String.class);
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+            statement.execute("update item set name = 'Replica copy' where id = 1");
+            statement.execute("insert into item (id, name, price, description) "
+                    + "select 999, 'Replica only', price, description from item where id = 1");
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "reader")
+    public void readOnlyRequestsGoToTheReplica() throws Exception {
+        mvc.perform(get("/api/item/999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Replica only"));
+    }
+
+    @Test
+    @WithMockUser(username = "reader")
+    public void replicaReadsAreNotCached() throws Exception {
+        mvc.perform(get("/api/item/999"))
+                .andExpect(status().isOk());
+
+        assertFalse(entityManagerFactory.getCache().contains(Item.class, 999L));
+    }
+
+    @Test
+    public void usersReadTheirOwnWritesFromThePrimary() throws Exception {
+        // Another user's read of the replica must not leave its copy in the cache for the writer.
+        mvc.perform(get("/api/item/1").with(user("reader")))
+                .andExpect(status().isOk());
+        mvc.perform(post("/api/order/submit/writer").with(user("writer")));
+
+        mvc.perform(get("/api/item/1").with(user("writer")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(primaryName));
+    }
+
+    @Test
+    public void signUpPinsTheNewUser() throws Exception {
+        mvc.perform(post("/api/user/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"newcomer\",\"password\":\"password1\",\"confirmPassword\":\"password1\"}"))
+                .andExpect(status().isOk());
+
+        assertTrue(readYourWritesWindow.isPinned("newcomer"));
+    }
+
+    @Test
+    @WithMockUser(username = "reader")
+    public void workOutsideReadOnlyTransactionsUsesThePrimary() throws Exception {
+        mvc.perform(get("/api/item/name/Replica copy"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/item"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == 1)].name").value(primaryName));
+    }
+}
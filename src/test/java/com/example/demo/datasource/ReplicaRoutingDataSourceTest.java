@@ -0,0 +1,61 @@
+package com.example.demo.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final DriverManagerDataSource primary = new DriverManagerDataSource("jdbc:h2:mem:routing-primary", "sa", "");
+
+    private final ReadYourWritesWindow window = new ReadYourWritesWindow(60_000, 100);
+
+    @After
+    public void clearReadOnly() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void fallsBackToThePrimaryWhenTheReplicaIsDown() throws Exception {
+        DriverManagerDataSource replica = new DriverManagerDataSource("jdbc:h2:mem:absent;IFEXISTS=TRUE", "sa", "");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, window, 60_000);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(ReplicaRoutingDataSource.Route.REPLICA, routing.determineCurrentLookupKey());
+        assertEquals("jdbc:h2:mem:routing-primary", url(routing));
+        assertEquals(ReplicaRoutingDataSource.Route.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void routesOnlyReadOnlyTransactionsOfUnpinnedUsersToTheReplica() throws Exception {
+        DriverManagerDataSource replica = new DriverManagerDataSource("jdbc:h2:mem:routing-replica", "sa", "");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, window, 60_000);
+
+        assertEquals("jdbc:h2:mem:routing-primary", url(routing));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("jdbc:h2:mem:routing-replica", url(routing));
+    }
+
+    @Test
+    public void windowExpires() throws Exception {
+        ReadYourWritesWindow shortWindow = new ReadYourWritesWindow(50, 100);
+        shortWindow.recordWrite("writer");
+        assertEquals(true, shortWindow.isPinned("writer"));
+        assertEquals(false, shortWindow.isPinned("reader"));
+        Thread.sleep(100);
+        assertEquals(false, shortWindow.isPinned("writer"));
+        assertEquals(0, shortWindow.size());
+    }
+
+    private static String url(ReplicaRoutingDataSource routing) throws SQLException {
+        try (Connection connection = routing.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
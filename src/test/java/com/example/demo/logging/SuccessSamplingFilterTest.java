@@ -0,0 +1,52 @@
+package com.example.demo.logging;
+
+import org.junit.Test;
+import org.slf4j.MarkerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.core.spi.FilterReply;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SuccessSamplingFilterTest {
+
+    @Test
+    public void dropsSuccessEventsAtZeroRate() {
+        SuccessSamplingFilter filter = new SuccessSamplingFilter();
+        filter.setRate(0);
+        assertEquals(FilterReply.DENY, decide(filter, Level.INFO));
+    }
+
+    @Test
+    public void keepsWarningsUnmarkedAndOtherMarkedEvents() {
+        SuccessSamplingFilter filter = new SuccessSamplingFilter();
+        filter.setRate(0);
+        assertEquals(FilterReply.NEUTRAL, decide(filter, Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, null, Level.INFO, "message", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(MarkerFactory.getMarker("OTHER"), null, Level.INFO,
+                "message", null, null));
+    }
+
+    @Test
+    public void keepsRoughlyTheConfiguredFraction() {
+        SuccessSamplingFilter filter = new SuccessSamplingFilter();
+        filter.setRate(0.25);
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (decide(filter, Level.INFO) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertTrue("kept " + kept, kept > 2_000 && kept < 3_000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRatesOutsideZeroToOne() {
+        new SuccessSamplingFilter().setRate(1.5);
+    }
+
+    private static FilterReply decide(SuccessSamplingFilter filter, Level level) {
+        return filter.decide(LogEvents.SUCCESS, null, level, "message", null, null);
+    }
+}
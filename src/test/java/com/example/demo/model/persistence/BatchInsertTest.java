@@ -0,0 +1,152 @@
+package com.example.demo.model.persistence;
+
+import com.example.demo.model.persistence.repositories.CartRepository;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.model.persistence.repositories.OrderRepository;
+import com.example.demo.model.persistence.repositories.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Counts the statements Hibernate prepares per operation; with sequence ids and JDBC batching a
+ * whole batch of inserts into one table is a single statement.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class BatchInsertTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Statistics statistics;
+
+    private List<Item> items;
+
+    @Before
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        items = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Item item = new Item();
+            item.setName("batch-" + i);
+            item.setPrice(Money.ofCents(100 + i));
+            item.setDescription("An item");
+            items.add(item);
+        }
+        itemRepository.saveAll(items);
+
+        // The first block taken from a fresh pooled sequence costs an extra read; take it up front.
+        User user = new User();
+        user.setUsername("batch-warm-up");
+        user.setPassword("password");
+        Cart cart = new Cart();
+        cart.addItem(items.get(0));
+        user.setCart(cart);
+        cart.setUser(user);
+        userRepository.save(user);
+        orderRepository.save(UserOrder.createFromCart(cart));
+        entityManager.flush();
+    }
+
+    @Test
+    public void batchesItemInserts() {
+        List<Item> more = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Item item = new Item();
+            item.setName("more-" + i);
+            item.setPrice(Money.ofCents(100 + i));
+            item.setDescription("An item");
+            more.add(item);
+        }
+        long statements = count(() -> itemRepository.saveAll(more));
+        assertEquals(100, statistics.getEntityInsertCount());
+        // two batches of 50 plus at most three sequence reads
+        assertTrue("prepared " + statements, statements <= 5);
+    }
+
+    @Test
+    public void signUpInsertsUserAndCart() {
+        User user = new User();
+        user.setUsername("batch-user");
+        user.setPassword("password");
+        Cart cart = new Cart();
+        user.setCart(cart);
+        cart.setUser(user);
+        long statements = count(() -> userRepository.save(user));
+        assertEquals(2, statistics.getEntityInsertCount());
+        // one insert per table, plus a sequence read if either block runs out
+        assertTrue("prepared " + statements, statements <= 4);
+    }
+
+    @Test
+    public void batchesCartLinesAndOrderLines() {
+        Cart cart = cartRepository.save(new Cart());
+        entityManager.flush();
+        long cartStatements = count(() -> {
+            items.forEach(cart::addItem);
+            cartRepository.save(cart);
+        });
+        assertEquals(items.size(), statistics.getEntityInsertCount());
+        // the cart_item batch, its sequence read and the cart total update
+        assertTrue("prepared " + cartStatements, cartStatements <= 3);
+
+        User user = new User();
+        user.setUsername("batch-order-user");
+        user.setPassword("password");
+        user.setCart(cart);
+        cart.setUser(user);
+        userRepository.save(user);
+        entityManager.flush();
+        long orderStatements = count(() -> orderRepository.save(UserOrder.createFromCart(cart)));
+        assertEquals(items.size() + 1, statistics.getEntityInsertCount());
+        // one user_order insert, one order_item batch and their sequence reads
+        assertTrue("prepared " + orderStatements, orderStatements <= 4);
+    }
+
+    @Test
+    public void seedItemsKeepTheirIdsBelowGeneratedOnes() {
+        assertEquals("Round Widget", itemRepository.findById(1L).get().getName());
+        assertEquals("Square Widget", itemRepository.findById(2L).get().getName());
+        assertTrue(items.stream().allMatch(item -> item.getId() > 2));
+    }
+
+    private long count(Runnable operation) {
+        statistics.clear();
+        operation.run();
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.example.demo.model.persistence;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CartTest {
+
+    private Cart cart;
+
+    private Item item;
+
+    @Before
+    public void setup() {
+        cart = new Cart();
+        item = new Item();
+        item.setId(1L);
+        item.setName("widget");
+        item.setPrice(Money.of("2.99"));
+        item.setDescription("A widget that is round");
+    }
+
+    @Test
+    public void addItemGroupsUnitsIntoOneLine() {
+        cart.addItem(item, 3);
+        cart.addItem(item, 500);
+        assertEquals(1, cart.getItems().size());
+        assertEquals(503, cart.getQuantity(item.getId()));
+        assertEquals(Money.of("1503.97"), cart.getTotal());
+    }
+
+    @Test
+    public void addItemChargesTheCurrentPriceAfterAReprice() {
+        cart.addItem(item, 2);
+        item.setPrice(Money.of("3.49"));
+        cart.addItem(item, 1);
+        assertEquals(Money.of("3.49"), cart.getLine(item.getId()).getUnitPrice());
+        assertEquals(Money.of("10.47"), cart.getTotal());
+        cart.removeItem(item, 3);
+        assertEquals(Money.of("0.00"), cart.getTotal());
+    }
+
+    @Test
+    public void removeItemDropsLineWhenEmpty() {
+        cart.addItem(item, 3);
+        cart.removeItem(item, 2);
+        assertEquals(1, cart.getQuantity(item.getId()));
+        cart.removeItem(item, 5);
+        assertNull(cart.getLine(item.getId()));
+        assertEquals(Money.of("0.00"), cart.getTotal());
+    }
+
+    @Test
+    public void addingAnEmptiedItemBackReusesItsLine() {
+        cart.addItem(item, 3);
+        CartItem line = cart.getLine(item.getId());
+        cart.setQuantity(item, 0);
+        cart.addItem(item, 2);
+        assertSame(line, cart.getLine(item.getId()));
+        assertEquals(2, line.getQuantity());
+        assertEquals(Money.of("5.98"), cart.getTotal());
+    }
+
+    @Test
+    public void removeItemNotInCartLeavesTotalUnchanged() {
+        cart.addItem(item, 1);
+        Item other = new Item();
+        other.setId(2L);
+        other.setPrice(Money.of("1.99"));
+        cart.removeItem(other, 1);
+        assertEquals(Money.of("2.99"), cart.getTotal());
+    }
+
+    @Test
+    public void setQuantityAdjustsLineAndTotal() {
+        cart.addItem(item, 2);
+        cart.setQuantity(item, 5);
+        assertEquals(5, cart.getQuantity(item.getId()));
+        assertEquals(Money.of("14.95"), cart.getTotal());
+        cart.setQuantity(item, 0);
+        assertNull(cart.getLine(item.getId()));
+        assertEquals(Money.of("0.00"), cart.getTotal());
+    }
+
+    @Test
+    public void changedItemIdsTrackLinesTouchedSinceLastClear() {
+        cart.addItem(item, 2);
+        cart.clearChanges();
+        assertEquals(Collections.emptySet(), cart.getChangedItemIds());
+        Item other = new Item();
+        other.setId(2L);
+        other.setPrice(Money.of("1.99"));
+        cart.removeItem(other, 1);
+        assertEquals(Collections.emptySet(), cart.getChangedItemIds());
+        cart.removeItem(item, 2);
+        assertEquals(Collections.singleton(item.getId()), cart.getChangedItemIds());
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.model.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+
+public class MoneyTest {
+
+    @Test
+    public void roundsHalfToEven() {
+        assertEquals(2, Money.of("0.025").getCents());
+        assertEquals(4, Money.of("0.035").getCents());
+        assertEquals(-2, Money.of("-0.025").getCents());
+        assertEquals(299, Money.of("2.99").getCents());
+    }
+
+    @Test
+    public void arithmeticIsExact() {
+        Money price = Money.of("0.10");
+        assertEquals(Money.of("0.30"), price.plus(price).plus(price));
+        assertEquals(Money.of("29.90"), Money.of("2.99").times(10));
+        assertEquals(Money.ZERO, Money.of("2.99").minus(Money.of("2.99")));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void overflowThrows() {
+        Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1));
+    }
+
+    @Test
+    public void writesAndReadsJsonAsDecimal() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals("1.50", mapper.writeValueAsString(Money.ofCents(150)));
+        assertEquals(Money.ofCents(150), mapper.readValue("1.5", Money.class));
+        assertEquals(new BigDecimal("1.50"), new MoneyConverter().convertToDatabaseColumn(Money.ofCents(150)));
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.example.demo.model.persistence;
+
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.service.ItemImportService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Every repository call runs in a transaction of its own, so a second lookup can only avoid the
+ * database through the second-level cache.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemImportService itemImportService;
+
+    private Statistics statistics;
+
+    private Item item;
+
+    @Before
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        item = new Item();
+        item.setName("cached" + System.nanoTime());
+        item.setPrice(Money.of("1.00"));
+        item.setDescription("Cached item");
+        item = itemRepository.save(item);
+        statistics.clear();
+    }
+
+    @Test
+    public void findByIdIsServedFromTheEntityCache() {
+        itemRepository.findById(item.getId());
+        long statements = statistics.getPrepareStatementCount();
+        itemRepository.findById(item.getId());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics("item").getHitCount());
+    }
+
+    @Test
+    public void findByNameIsServedFromTheQueryCache() {
+        itemRepository.findByName(item.getName());
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(1, itemRepository.findByName(item.getName()).size());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryRegionStatistics("item-by-name").getHitCount());
+    }
+
+    @Test
+    public void priceImportEvictsTheCachedItem() throws Exception {
+        assertEquals(Money.of("1.00"), itemRepository.findById(item.getId()).get().getPrice());
+
+        itemImportService.updatePrices(new BufferedReader(new StringReader(
+                "{\"id\":" + item.getId() + ",\"price\":2.50}\n")), ItemImportService.Format.NDJSON);
+
+        assertEquals(Money.of("2.50"), itemRepository.findById(item.getId()).get().getPrice());
+    }
+
+}
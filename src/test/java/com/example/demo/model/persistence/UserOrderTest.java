@@ -0,0 +1,33 @@
+package com.example.demo.model.persistence;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class UserOrderTest {
+
+    @Test
+    public void createFromCartSnapshotsLines() {
+        Item item = new Item();
+        item.setId(1L);
+        item.setName("widget");
+        item.setPrice(Money.of("2.99"));
+        item.setDescription("A widget that is round");
+        Cart cart = new Cart();
+        cart.addItem(item, 3);
+
+        UserOrder order = UserOrder.createFromCart(cart);
+        item.setName("renamed widget");
+        item.setPrice(Money.of("9.99"));
+
+        assertEquals(1, order.getItems().size());
+        OrderItem line = order.getItems().get(0);
+        assertEquals(order, line.getOrder());
+        assertEquals(Long.valueOf(1L), line.getItemId());
+        assertEquals("widget", line.getName());
+        assertEquals(Money.of("2.99"), line.getUnitPrice());
+        assertEquals(3, line.getQuantity());
+        assertEquals(Money.of("8.97"), order.getTotal());
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.example.demo.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class BloomFilterTest {
+
+    @Test
+    public void neverMissesAnInsertedKey() throws Exception {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            keys.add(UUID.randomUUID().toString());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int from = t * 2_500;
+                writers.add(executor.submit(() -> keys.subList(from, from + 2_500).forEach(filter::put)));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        for (String key : keys) {
+            assertTrue(filter.mightContain(key));
+        }
+    }
+
+    @Test
+    public void keepsFalsePositivesNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue("false positives: " + falsePositives, falsePositives < 2_000);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.security;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PooledBCryptPasswordEncoderTest {
+
+    private PooledBCryptPasswordEncoder encoder;
+
+    @After
+    public void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    public void encodesAndMatchesOnWorkerPool() {
+        encoder = new PooledBCryptPasswordEncoder(4, 2, 4);
+        String hash = encoder.encode("password");
+        assertTrue(encoder.matches("password", hash));
+        assertFalse(encoder.matches("wrong-password", hash));
+        assertEquals(0, encoder.getRejectedCount());
+    }
+
+    @Test
+    public void rejectsWhenQueueIsFull() throws Exception {
+        encoder = new PooledBCryptPasswordEncoder(14, 1, 1);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(callers.submit(() -> encoder.encode("password")));
+        }
+        int rejected = 0;
+        for (Future<String> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof PasswordHashingUnavailableException);
+                rejected++;
+            }
+        }
+        callers.shutdown();
+        assertEquals(2, rejected);
+        assertEquals(2, encoder.getRejectedCount());
+    }
+}
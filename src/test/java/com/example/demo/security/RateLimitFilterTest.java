@@ -0,0 +1,73 @@
+package com.example.demo.security;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "security.rate-limit.ip[0].method=POST",
+        "security.rate-limit.ip[0].path=/login",
+        "security.rate-limit.ip[0].per-second=0.01",
+        "security.rate-limit.ip[0].burst=2",
+        "security.rate-limit.user[0].path=/api/item/search",
+        "security.rate-limit.user[0].per-second=0.01",
+        "security.rate-limit.user[0].burst=2",
+        "security.rate-limit.user[1].method=POST",
+        "security.rate-limit.user[1].path=/api/order/submit*/**",
+        "security.rate-limit.user[1].per-second=0.01",
+        "security.rate-limit.user[1].burst=1"})
+@AutoConfigureMockMvc
+public class RateLimitFilterTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    public void limitsLoginAttemptsPerAddress() throws Exception {
+        String login = "{\"username\":\"nobody\",\"password\":\"wrong-password\"}";
+        mvc.perform(post("/login").content(login).with(address("10.0.0.1"))).andExpect(status().isUnauthorized());
+        mvc.perform(post("/login").content(login).with(address("10.0.0.1"))).andExpect(status().isUnauthorized());
+        mvc.perform(post("/login").content(login).with(address("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"));
+        mvc.perform(post("/login").content(login).with(address("10.0.0.2"))).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(username = "rate-limited")
+    public void limitsRoutesPerUser() throws Exception {
+        mvc.perform(get("/api/item/search").param("q", "widget")).andExpect(status().isOk());
+        mvc.perform(get("/api/item/search").param("q", "widget")).andExpect(status().isOk());
+        mvc.perform(get("/api/item/search").param("q", "widget"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        mvc.perform(get("/api/item/suggest").param("prefix", "w")).andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(username = "checkout-limited")
+    public void submitRoutesShareOneBudget() throws Exception {
+        mvc.perform(post("/api/order/submit/checkout-limited")).andExpect(status().isNotFound());
+        mvc.perform(post("/api/order/submitAsync/checkout-limited")).andExpect(status().isTooManyRequests());
+    }
+
+    private static RequestPostProcessor address(String remoteAddr) {
+        return request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        };
+    }
+}
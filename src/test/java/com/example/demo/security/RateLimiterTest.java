@@ -0,0 +1,51 @@
+package com.example.demo.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void allowsBurstThenOnePermitPerInterval() {
+        RateLimiter limiter = new RateLimiter(2, 3, 10);
+        long now = 0;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.acquire("a", now));
+        }
+        assertEquals(SECOND / 2, limiter.acquire("a", now));
+        assertEquals(0, limiter.acquire("a", now + SECOND / 2));
+        assertTrue(limiter.acquire("a", now + SECOND / 2) > 0);
+    }
+
+    @Test
+    public void keepsKeysApart() {
+        RateLimiter limiter = new RateLimiter(1, 1, 10);
+        assertEquals(0, limiter.acquire("a", 0));
+        assertTrue(limiter.acquire("a", 0) > 0);
+        assertEquals(0, limiter.acquire("b", 0));
+    }
+
+    @Test
+    public void staysWithinBound() {
+        RateLimiter limiter = new RateLimiter(1, 1, 100);
+        for (int i = 0; i < 1_000; i++) {
+            limiter.acquire("key-" + i, 0);
+        }
+        assertTrue(limiter.size() <= 100);
+    }
+
+    @Test
+    public void forgetsRefilledKeysFirst() {
+        RateLimiter limiter = new RateLimiter(1, 1, 2);
+        limiter.acquire("idle", 0);
+        limiter.acquire("busy", 5 * SECOND);
+        limiter.acquire("new", 5 * SECOND);
+        assertTrue(limiter.acquire("busy", 5 * SECOND) > 0);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.security;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class SecurityMetricsTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void recordsLoginsAndTokenVerifications() throws Exception {
+        mvc.perform(post("/api/user/create").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"metrics-user\",\"password\":\"password\",\"confirmPassword\":\"password\"}"))
+                .andExpect(status().isOk());
+        long successes = logins("success");
+        long failures = logins("failure");
+
+        mvc.perform(post("/login").content("{\"username\":\"metrics-user\",\"password\":\"wrong-password\"}"))
+                .andExpect(status().isUnauthorized());
+        String token = mvc.perform(post("/login")
+                .content("{\"username\":\"metrics-user\",\"password\":\"password\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(SecurityConstants.HEADER_STRING);
+
+        assertEquals(successes + 1, logins("success"));
+        assertEquals(failures + 1, logins("failure"));
+
+        double verified = verifications("verified");
+        double cached = verifications("cached");
+        mvc.perform(get("/api/item").header(SecurityConstants.HEADER_STRING, token)).andExpect(status().isOk());
+        mvc.perform(get("/api/item").header(SecurityConstants.HEADER_STRING, token)).andExpect(status().isOk());
+
+        assertEquals(verified + 1, verifications("verified"), 0);
+        assertEquals(cached + 1, verifications("cached"), 0);
+    }
+
+    @Test
+    @WithMockUser(username = "test")
+    public void exposesPrometheusScrape() throws Exception {
+        mvc.perform(get("/api/item")).andExpect(status().isOk());
+
+        String scrape = mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket"));
+        assertTrue(scrape.contains("uri=\"/api/item\""));
+        assertTrue(scrape.contains("hikaricp_connections"));
+        assertTrue(scrape.contains("security_jwt_verifications_total"));
+    }
+
+    private long logins(String outcome) {
+        return meterRegistry.find("security.login").tag("outcome", outcome).timers().stream()
+                .mapToLong(timer -> timer.count()).sum();
+    }
+
+    private double verifications(String outcome) {
+        return meterRegistry.get("security.jwt.verifications").tag("outcome", outcome).counter().count();
+    }
+}
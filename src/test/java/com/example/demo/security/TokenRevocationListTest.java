@@ -0,0 +1,50 @@
+package com.example.demo.security;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TokenRevocationListTest {
+
+    @Test
+    public void revokesSingleTokensById() {
+        TokenRevocationList list = new TokenRevocationList(100, 0.01);
+        list.revoke("a", 1_000L);
+        assertTrue(list.isRevoked("test", "a", 0L));
+        assertFalse(list.isRevoked("test", "b", 0L));
+        assertFalse(list.isRevoked("test", null, 0L));
+    }
+
+    @Test
+    public void revokesTokensIssuedUpToTheUsersCutoff() {
+        TokenRevocationList list = new TokenRevocationList(100, 0.01);
+        list.revokeAll("test", 10L);
+        list.revokeAll("test", 5L);
+        assertTrue(list.isRevoked("test", "a", 10L));
+        assertFalse(list.isRevoked("test", "a", 11L));
+        assertFalse(list.isRevoked("other", "a", 10L));
+    }
+
+    @Test
+    public void purgeDropsExpiredRevocationsAndKeepsLiveOnes() {
+        TokenRevocationList list = new TokenRevocationList(1, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            list.revoke("live-" + i, 10_000L);
+        }
+        list.revoke("expired", 1_000L);
+        list.revokeAll("gone", 0L);
+        list.revokeAll("kept", 1_500L);
+
+        list.purge(2_000L, 1_000L);
+
+        assertEquals(1_000, list.size());
+        assertEquals(1, list.userCount());
+        assertFalse(list.isRevoked("test", "expired", 0L));
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(list.isRevoked("test", "live-" + i, 0L));
+        }
+        assertTrue(list.isRevoked("kept", "a", 1_500L));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.security;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.demo.model.persistence.repositories.RevokedTokenRepository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TokenRevocationTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private String username;
+
+    @Before
+    public void createUser() throws Exception {
+        username = "revocation-" + System.nanoTime();
+        mvc.perform(post("/api/user/create").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"password\",\"confirmPassword\":\"password\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void logoutRevokesOnlyThatToken() throws Exception {
+        String phone = login();
+        String laptop = login();
+        assertNotEquals(phone, laptop);
+        long revoked = revokedTokenRepository.count();
+
+        mvc.perform(post("/api/auth/logout").header(SecurityConstants.HEADER_STRING, phone))
+                .andExpect(status().isNoContent());
+
+        mvc.perform(get("/api/item").header(SecurityConstants.HEADER_STRING, phone))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/item").header(SecurityConstants.HEADER_STRING, laptop))
+                .andExpect(status().isOk());
+        assertEquals(revoked + 1, revokedTokenRepository.count());
+    }
+
+    @Test
+    public void logoutAllRevokesEveryEarlierToken() throws Exception {
+        String phone = login();
+        String laptop = login();
+
+        mvc.perform(post("/api/auth/logoutAll").header(SecurityConstants.HEADER_STRING, laptop))
+                .andExpect(status().isNoContent());
+
+        mvc.perform(get("/api/item").header(SecurityConstants.HEADER_STRING, phone))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/item").header(SecurityConstants.HEADER_STRING, laptop))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void reLoginRightAfterLogoutAllIsNotRevoked() throws Exception {
+        String token = login();
+
+        mvc.perform(post("/api/auth/logoutAll").header(SecurityConstants.HEADER_STRING, token))
+                .andExpect(status().isNoContent());
+        // Same second as the logout, unless the test machine is very slow.
+        String again = login();
+
+        mvc.perform(get("/api/item").header(SecurityConstants.HEADER_STRING, again))
+                .andExpect(status().isOk());
+        tokenRevocationService.refresh();
+        mvc.perform(get("/api/item").header(SecurityConstants.HEADER_STRING, again))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void revocationsSurviveReloadingFromTheDatabase() throws Exception {
+        String token = login();
+        mvc.perform(post("/api/auth/logout").header(SecurityConstants.HEADER_STRING, token))
+                .andExpect(status().isNoContent());
+
+        tokenRevocationService.refresh();
+
+        mvc.perform(get("/api/item").header(SecurityConstants.HEADER_STRING, token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String login() throws Exception {
+        return mvc.perform(post("/login")
+                .content("{\"username\":\"" + username + "\",\"password\":\"password\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(SecurityConstants.HEADER_STRING);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.security;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class VerifiedTokenCacheTest {
+
+    @Test
+    public void returnsSubjectUntilExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token", "test", "id", 1L, 1_000L, 0L);
+        VerifiedTokenCache.Entry entry = cache.get("token", 999L);
+        assertEquals("test", entry.getSubject());
+        assertEquals("id", entry.getTokenId());
+        assertEquals(1L, entry.getIssuedAt());
+        assertNull(cache.get("token", 1_000L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void ignoresAlreadyExpiredTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token", "test", "id", 0L, 1_000L, 1_000L);
+        assertNull(cache.get("token", 0L));
+    }
+
+    @Test
+    public void staysWithinBound() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("token-" + i, "user-" + i, "id-" + i, 0L, Long.MAX_VALUE, 0L);
+        }
+        assertTrue(cache.size() <= 100);
+        assertEquals("user-999", cache.get("token-999", 0L).getSubject());
+    }
+}
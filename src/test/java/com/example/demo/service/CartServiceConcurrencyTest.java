@@ -0,0 +1,219 @@
+package com.example.demo.service;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.Money;
+import com.example.demo.model.persistence.repositories.CartRepository;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs against the real database: threads commit independently, so nothing here can be rolled back.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class CartServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private static final int ADDS_PER_THREAD = 100;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Item item;
+
+    @Before
+    public void setup() {
+        item = itemRepository.findById(1L).get();
+    }
+
+    @Test
+    public void concurrentAddsToOneCartAreNeverLost() throws Exception {
+        long cartId = cartRepository.save(new Cart()).getId();
+
+        run(THREADS, thread -> cartId);
+
+        assertCart(cartId, THREADS * ADDS_PER_THREAD);
+    }
+
+    @Test
+    public void concurrentAddsToDistinctCartsAreNeverLost() throws Exception {
+        long[] ownCarts = new long[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            ownCarts[i] = cartRepository.save(new Cart()).getId();
+        }
+
+        run(THREADS, thread -> ownCarts[thread]);
+
+        for (long cartId : ownCarts) {
+            assertCart(cartId, ADDS_PER_THREAD);
+        }
+    }
+
+    @Test
+    public void aCartBeingModifiedDoesNotBlockAnotherCart() throws Exception {
+        long busyCart = cartRepository.save(new Cart()).getId();
+        long otherCart = cartRepository.save(new Cart()).getId();
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> busy = pool.submit(() -> cartService.modify(busyCart, cart -> {
+                inside.countDown();
+                try {
+                    release.await(60, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                cart.addItem(item, 1);
+            }));
+            assertTrue(inside.await(60, TimeUnit.SECONDS));
+
+            // Would wait for the busy cart's lock if both carts shared one.
+            cartService.modify(otherCart, cart -> cart.addItem(item, 1));
+            assertFalse(busy.isDone());
+
+            release.countDown();
+            busy.get(60, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+
+        assertCart(busyCart, 1);
+        assertCart(otherCart, 1);
+    }
+
+    @Test
+    public void emptyingALineAndAddingItBackInOneMutationKeepsTheRow() {
+        long cartId = cartRepository.save(new Cart()).getId();
+        cartService.modify(cartId, cart -> cart.addItem(item, 2));
+        AtomicInteger attempts = new AtomicInteger();
+
+        // The batch [SET 0, ADD 3] on one item.
+        cartService.modify(cartId, cart -> {
+            attempts.incrementAndGet();
+            cart.setQuantity(item, 0);
+            cart.addItem(item, 3);
+        });
+
+        assertEquals(1, attempts.get());
+        assertCart(cartId, 3);
+    }
+
+    @Test
+    public void retriesAfterAConcurrentWriteFromElsewhere() throws Exception {
+        long cartId = cartRepository.save(new Cart()).getId();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        AtomicInteger attempts = new AtomicInteger();
+        ExecutorService otherInstance = Executors.newSingleThreadExecutor();
+        try {
+            cartService.modify(cartId, cart -> {
+                if (attempts.incrementAndGet() == 1) {
+                    // Another node commits a change between this read and this commit.
+                    try {
+                        otherInstance.submit(() -> tx.execute(status -> {
+                            Cart other = cartRepository.findById(cartId).get();
+                            other.addItem(item, 2);
+                            return cartRepository.save(other);
+                        })).get();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                cart.addItem(item, 1);
+            });
+        } finally {
+            otherInstance.shutdown();
+        }
+
+        assertEquals(2, attempts.get());
+        assertCart(cartId, 3);
+    }
+
+    @Test
+    public void integrityErrorsWithoutAConcurrentWriteAreNotRetried() {
+        long cartId = cartRepository.save(new Cart()).getId();
+        cartService.modify(cartId, cart -> cart.addItem(item, 1));
+        AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            cartService.modify(cartId, cart -> {
+                attempts.incrementAndGet();
+                // Breaks the not-null constraint on cart_item.item_id.
+                cart.getLine(item.getId()).setItem(null);
+            });
+            fail("expected a DataIntegrityViolationException");
+        } catch (DataIntegrityViolationException e) {
+            assertEquals(1, attempts.get());
+        }
+        assertCart(cartId, 1);
+    }
+
+    private void run(int threads, ThreadCart cartFor) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long cartId = cartFor.cartId(t);
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                        cartService.modify(cartId, cart -> cart.addItem(item, 1));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void assertCart(long cartId, int quantity) {
+        Cart cart = new TransactionTemplate(transactionManager).execute(status -> {
+            Cart c = cartRepository.findById(cartId).get();
+            c.getItems();
+            return c;
+        });
+        assertEquals(quantity, cart.getQuantity(item.getId()));
+        assertEquals(item.getPrice().times(quantity), cart.getTotal());
+    }
+
+    private interface ThreadCart {
+        long cartId(int thread);
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.Money;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.model.responses.ImportReport;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs against the real database because every chunk commits on its own.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "catalog.import.chunk-size=2")
+public class ItemImportServiceTest {
+
+    @Autowired
+    private ItemImportService itemImportService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Test
+    public void importsCsvInChunksAndReportsFailures() throws Exception {
+        String tag = "csv" + System.nanoTime();
+        char[] tooLong = new char[300];
+        Arrays.fill(tooLong, 'x');
+        String feed = "name,price,description\n"
+                + tag + " one,1.50,\"Round, red\"\n"
+                + tag + " two,2.00,\"Says \"\"hi\"\"\"\n"
+                + tag + " three,3.00,Fine\n"
+                + new String(tooLong) + ",4.00,Too long a name\n"
+                + tag + " four,not-a-price,Bad price\n"
+                + "\n"
+                + tag + " five,5.00,Fine\n";
+
+        ImportReport report = itemImportService.importItems(reader(feed), ItemImportService.Format.CSV);
+
+        assertEquals(6, report.getRowsRead());
+        assertEquals(3, report.getRowsWritten());
+        assertEquals(2, report.getChunksCommitted());
+        assertEquals(1, report.getChunksFailed());
+        assertEquals(2, report.getErrorCount());
+        assertEquals(4, report.getErrors().get(0).getLine());
+        assertEquals(6, report.getErrors().get(1).getLine());
+        assertEquals("Round, red", itemRepository.findByName(tag + " one").get(0).getDescription());
+        assertEquals("Says \"hi\"", itemRepository.findByName(tag + " two").get(0).getDescription());
+        assertEquals(0, itemRepository.findByName(tag + " three").size());
+        assertEquals(1, itemRepository.findByName(tag + " five").size());
+    }
+
+    @Test
+    public void updatesPricesFromNdjson() throws Exception {
+        String tag = "json" + System.nanoTime();
+        itemImportService.importItems(reader("{\"name\":\"" + tag + " a\",\"price\":1.00,\"description\":\"A\"}\n"
+                + "{\"name\":\"" + tag + " b\",\"price\":2.00,\"description\":\"B\"}\n"), ItemImportService.Format.NDJSON);
+        Item a = itemRepository.findByName(tag + " a").get(0);
+        Item b = itemRepository.findByName(tag + " b").get(0);
+        assertEquals(1, itemSearchIndex.search(tag + " a", 10).size());
+
+        ImportReport report = itemImportService.updatePrices(reader("{\"id\":" + a.getId() + ",\"price\":9.99}\n"
+                + "{\"id\":" + b.getId() + ",\"price\":0.5}\n"
+                + "{\"id\":-1,\"price\":1.00}\n"
+                + "{\"id\":" + b.getId() + "}\n"), ItemImportService.Format.NDJSON);
+
+        assertEquals(4, report.getRowsRead());
+        assertEquals(2, report.getRowsWritten());
+        assertEquals(2, report.getErrorCount());
+        assertEquals(Money.of("9.99"), itemRepository.findById(a.getId()).get().getPrice());
+        assertEquals(Money.of("0.50"), itemRepository.findById(b.getId()).get().getPrice());
+        List<Item> found = itemSearchIndex.search(tag + " a", 10);
+        assertEquals(Money.of("9.99"), found.get(0).getPrice());
+    }
+
+    @Test
+    public void parsesQuotedCsvFields() {
+        assertEquals(Arrays.asList("a", "b,c", "d\"e", ""), ItemImportService.parseCsvLine("a,\"b,c\",\"d\"\"e\","));
+    }
+
+    private static BufferedReader reader(String feed) {
+        return new BufferedReader(new StringReader(feed));
+    }
+
+}
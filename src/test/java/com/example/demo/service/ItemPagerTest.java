@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.Money;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.model.responses.ItemPage;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Transactional
+public class ItemPagerTest {
+
+    @Autowired
+    private ItemPager itemPager;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Before
+    public void setup() {
+        for (int i = 0; i < 23; i++) {
+            Item item = new Item();
+            // Repeated names and prices exercise the id tie-breaker.
+            item.setName("item-" + (i % 7));
+            item.setPrice(Money.ofCents((i % 5) * 100 + 99));
+            item.setDescription("An item");
+            itemRepository.save(item);
+        }
+    }
+
+    @Test
+    public void walksEverySortOrderWithoutGapsOrDuplicates() {
+        List<Item> all = itemRepository.findAll();
+        Comparator<Item> byId = Comparator.comparing(Item::getId);
+        assertPagesMatch(ItemPager.SortKey.ID, all, byId);
+        assertPagesMatch(ItemPager.SortKey.NAME, all, Comparator.comparing(Item::getName).thenComparing(byId));
+        assertPagesMatch(ItemPager.SortKey.PRICE, all, Comparator.comparing(Item::getPrice).thenComparing(byId));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsCursorFromAnotherSort() {
+        String cursor = itemPager.page(ItemPager.SortKey.NAME, Sort.Direction.ASC, 5, null).getNextCursor();
+        itemPager.page(ItemPager.SortKey.PRICE, Sort.Direction.ASC, 5, cursor);
+    }
+
+    private void assertPagesMatch(ItemPager.SortKey sort, List<Item> all, Comparator<Item> order) {
+        assertEquals(ids(all.stream().sorted(order).collect(Collectors.toList())), walk(sort, Sort.Direction.ASC));
+        assertEquals(ids(all.stream().sorted(order.reversed()).collect(Collectors.toList())),
+                walk(sort, Sort.Direction.DESC));
+    }
+
+    private List<Long> walk(ItemPager.SortKey sort, Sort.Direction direction) {
+        List<Item> seen = new ArrayList<>();
+        ItemPage page = itemPager.page(sort, direction, 4, null);
+        seen.addAll(page.getItems());
+        while (page.getNextCursor() != null) {
+            page = itemPager.page(sort, direction, 4, page.getNextCursor());
+            seen.addAll(page.getItems());
+        }
+        assertNull(page.getNextCursor());
+        return ids(seen);
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.service;
+
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.Money;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+
+public class ItemSearchIndexTest {
+
+    private ItemSearchIndex index;
+
+    @Before
+    public void setup() {
+        ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+        given(itemRepository.findAll()).willReturn(Arrays.asList(
+                item(1L, "Round Widget", "A widget that is round"),
+                item(2L, "Square Widget", "A widget that is square"),
+                item(3L, "Square Gadget", "Pairs well with a round widget")));
+        index = new ItemSearchIndex();
+        ReflectionTestUtils.setField(index, "itemRepository", itemRepository);
+        ReflectionTestUtils.setField(index, "transactionManager", Mockito.mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void ranksNameMatchesAboveDescriptionMatches() {
+        assertEquals(Arrays.asList(1L, 3L), ids(index.search("round ", 10)));
+    }
+
+    @Test
+    public void requiresEveryTermToMatch() {
+        assertEquals(Arrays.asList(2L, 3L), ids(index.search("square widget ", 10)));
+        assertEquals(Arrays.asList(3L), ids(index.search("gadget round ", 10)));
+    }
+
+    @Test
+    public void matchesLastTermAsPrefix() {
+        assertEquals(Arrays.asList(2L, 3L), ids(index.search("squ", 10)));
+        assertEquals(Arrays.asList("Square Gadget"), index.suggest("gad", 5));
+    }
+
+    @Test
+    public void doesNotExpandSingleCharacterPrefixes() {
+        assertTrue(index.search("s", 10).isEmpty());
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(index.search("a", 10)));
+    }
+
+    @Test
+    public void capsTheTermsAPrefixExpandsTo() {
+        index.search("widget", 10);
+        int count = ItemSearchIndex.MAX_PREFIX_TERMS + 10;
+        for (long id = 100; id < 100 + count; id++) {
+            index.onItemChanged(new ItemChangedEvent(this, item(id, "Part" + id, "Spare"), false));
+        }
+        assertEquals(ItemSearchIndex.MAX_PREFIX_TERMS, index.search("part", count).size());
+        assertEquals(count, index.search("spare ", count).size());
+    }
+
+    @Test
+    public void appliesItemChangesIncrementally() {
+        index.search("widget", 10);
+        Item renamed = item(2L, "Square Sprocket", "A sprocket that is square");
+        index.onItemChanged(new ItemChangedEvent(this, renamed, false));
+        assertEquals(Arrays.asList(2L), ids(index.search("sprocket", 10)));
+        assertEquals(Arrays.asList(1L, 3L), ids(index.search("widget", 10)));
+        index.onItemChanged(new ItemChangedEvent(this, renamed, true));
+        assertTrue(index.search("sprocket", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    private static Item item(Long id, String name, String description) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setPrice(Money.of("1.99"));
+        item.setDescription(description);
+        return item;
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.service;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.User;
+import com.example.demo.model.persistence.UserOrder;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.model.persistence.repositories.OrderRepository;
+import com.example.demo.model.persistence.repositories.UserRepository;
+import com.example.demo.model.responses.OrderStatus;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Runs against the real database because the writer commits on its own thread.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class OrderIntakeServiceTest {
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    public void persistsEveryQueuedOrder() throws Exception {
+        Item item = itemRepository.findById(1L).get();
+        User user = new User();
+        user.setUsername("intake-" + System.nanoTime());
+        user.setPassword("password");
+        Cart cart = new Cart();
+        cart.addItem(item, 2);
+        user.setCart(cart);
+        cart.setUser(user);
+        user = userRepository.save(user);
+
+        List<String> references = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            references.add(orderIntakeService.submit(UserOrder.createFromCart(user.getCart())).getReference());
+        }
+
+        Set<Long> orderIds = new HashSet<>();
+        for (String reference : references) {
+            OrderStatus status = await(reference);
+            assertEquals(OrderStatus.State.PERSISTED, status.getState());
+            assertNotNull(status.getOrderId());
+            orderIds.add(status.getOrderId());
+        }
+        assertEquals(references.size(), orderIds.size());
+        assertEquals(references.size(), orderRepository.findByUser(user).size());
+    }
+
+    private OrderStatus await(String reference) throws InterruptedException {
+        OrderStatus status = orderIntakeService.getStatus(reference);
+        for (int i = 0; i < 200 && status.getState() == OrderStatus.State.QUEUED; i++) {
+            Thread.sleep(50);
+            status = orderIntakeService.getStatus(reference);
+        }
+        return status;
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.example.demo.service;
+
+import com.example.demo.model.persistence.User;
+import com.example.demo.model.persistence.UserOrder;
+import com.example.demo.model.persistence.repositories.OrderRepository;
+import com.example.demo.model.responses.OrderStatus;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.BDDMockito.given;
+
+public class OrderIntakeShutdownTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    private OrderRepository orderRepository;
+
+    private EntityManager entityManager;
+
+    @Before
+    public void setup() {
+        orderRepository = Mockito.mock(OrderRepository.class);
+        entityManager = Mockito.mock(EntityManager.class);
+        given(entityManager.getReference(any(), any())).willReturn(new User());
+    }
+
+    private OrderIntakeService service(long writeMillis, long graceMillis) {
+        given(orderRepository.saveAll(anyIterable())).willAnswer(invocation -> {
+            // Ignores interrupts like a JDBC call in progress would.
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(writeMillis);
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(deadline - System.nanoTime());
+            }
+            return invocation.getArgument(0);
+        });
+        OrderIntakeService service = new OrderIntakeService(Mockito.mock(PlatformTransactionManager.class),
+                100, BATCH_SIZE, 100, graceMillis);
+        ReflectionTestUtils.setField(service, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        return service;
+    }
+
+    private List<String> submit(OrderIntakeService service, int count) {
+        User user = new User();
+        user.setId(1L);
+        List<String> references = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UserOrder order = new UserOrder();
+            order.setUser(user);
+            order.setItems(new ArrayList<>());
+            references.add(service.submit(order).getReference());
+        }
+        return references;
+    }
+
+    private long count(OrderIntakeService service, List<String> references, OrderStatus.State state) {
+        return references.stream().filter(r -> service.getStatus(r).getState() == state).count();
+    }
+
+    @Test
+    public void stopDrainsTheQueueWithinTheGracePeriod() throws Exception {
+        OrderIntakeService service = service(0, TimeUnit.SECONDS.toMillis(10));
+        List<String> references = submit(service, 10);
+        service.start();
+        service.stop();
+        assertEquals(10, count(service, references, OrderStatus.State.PERSISTED));
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    @Test
+    public void stopFinishesTheBatchInFlightThenAbandonsTheRest() throws Exception {
+        OrderIntakeService service = service(200, 300);
+        List<String> references = submit(service, 10);
+        service.start();
+        service.stop();
+        long persisted = count(service, references, OrderStatus.State.PERSISTED);
+        long queued = count(service, references, OrderStatus.State.QUEUED);
+        assertTrue(persisted > 0);
+        assertEquals("only whole batches are written", 0, persisted % BATCH_SIZE);
+        assertTrue(queued > 0);
+        assertEquals(10, persisted + queued);
+        assertEquals(queued, service.getQueueDepth());
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.example.demo.service;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.User;
+import com.example.demo.model.persistence.repositories.UserRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class UserIdentityCacheTest {
+
+    private UserRepository userRepository;
+
+    private User user;
+
+    @Before
+    public void setup() {
+        userRepository = Mockito.mock(UserRepository.class);
+        user = new User();
+        user.setId(1L);
+        user.setUsername("test");
+        user.setPassword("hash");
+        Cart cart = new Cart();
+        cart.setId(7L);
+        user.setCart(cart);
+        given(userRepository.findByUsername("test")).willReturn(user);
+    }
+
+    private UserIdentityCache cache(int maxSize, long ttlSeconds) {
+        UserIdentityCache cache = new UserIdentityCache(maxSize, ttlSeconds);
+        ReflectionTestUtils.setField(cache, "userRepository", userRepository);
+        return cache;
+    }
+
+    @Test
+    public void servesRepeatLookupsFromCache() {
+        UserIdentityCache cache = cache(10, 60);
+        UserIdentity identity = cache.get("test");
+        assertEquals(1L, identity.getUserId());
+        assertEquals(Long.valueOf(7L), identity.getCartId());
+        assertEquals("hash", identity.getPasswordHash());
+        cache.get("test");
+        cache.get("test");
+        verify(userRepository, times(1)).findByUsername("test");
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void doesNotCacheUnknownUsers() {
+        UserIdentityCache cache = cache(10, 60);
+        assertNull(cache.get("missing"));
+        assertNull(cache.get("missing"));
+        verify(userRepository, times(2)).findByUsername("missing");
+    }
+
+    @Test
+    public void reloadsAfterUserChange() {
+        UserIdentityCache cache = cache(10, 60);
+        cache.get("test");
+        user.setPassword("new-hash");
+        cache.onUserChanged(new UserChangedEvent(this, user));
+        assertEquals("new-hash", cache.get("test").getPasswordHash());
+    }
+
+    @Test
+    public void expiresEntries() {
+        UserIdentityCache cache = cache(10, 0);
+        cache.get("test");
+        cache.get("test");
+        verify(userRepository, times(2)).findByUsername("test");
+    }
+
+    @Test
+    public void staysWithinBound() {
+        UserIdentityCache cache = cache(50, 60);
+        for (int i = 0; i < 500; i++) {
+            User other = new User();
+            other.setId(i + 100L);
+            other.setUsername("user-" + i);
+            given(userRepository.findByUsername(other.getUsername())).willReturn(other);
+            cache.get(other.getUsername());
+        }
+        assertTrue(cache.size() <= 50);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedMapsTest {
+
+    @Test
+    public void dropsExpiredEntriesBeforeLiveOnes() {
+        Map<String, Long> map = new ConcurrentHashMap<>();
+        for (long i = 0; i < 100; i++) {
+            map.put("key" + i, i);
+        }
+
+        BoundedMaps.makeRoom(map, 100, value -> value < 50);
+
+        assertEquals(50, map.size());
+        assertTrue(map.values().stream().allMatch(value -> value >= 50));
+    }
+
+    @Test
+    public void dropsATenthWhenEverythingIsLive() {
+        Map<String, Long> map = new ConcurrentHashMap<>();
+        for (long i = 0; i < 100; i++) {
+            map.put("key" + i, i);
+        }
+
+        BoundedMaps.makeRoom(map, 100, value -> false);
+
+        assertEquals(90, map.size());
+    }
+
+    @Test
+    public void alwaysFreesAtLeastOneSlot() {
+        Map<String, Long> map = new ConcurrentHashMap<>();
+        map.put("a", 1L);
+        map.put("b", 2L);
+
+        BoundedMaps.makeRoom(map, 2, value -> false);
+
+        assertEquals(1, map.size());
+    }
+}